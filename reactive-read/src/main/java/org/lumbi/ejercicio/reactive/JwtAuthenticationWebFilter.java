@@ -0,0 +1,61 @@
+package org.lumbi.ejercicio.reactive;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.lumbi.ejercicio.security.JwtTokenProvider;
+import org.lumbi.ejercicio.security.TokenRevocationList;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import io.jsonwebtoken.Claims;
+import reactor.core.publisher.Mono;
+
+/**
+ * Versión reactiva de JwtTokenFilter: valida el token Bearer con el mismo
+ * JwtTokenProvider, descarta los revocados (TokenRevocationList, que mantiene
+ * al día ReactiveTokenRevocationSync) y publica la autenticación en el
+ * contexto de Reactor.
+ *
+ * No es un bean para que WebFlux no lo registre además como filtro global;
+ * lo instancia ReactiveSecurityConfig dentro de la cadena de seguridad.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationList revocationList;
+
+    public JwtAuthenticationWebFilter(JwtTokenProvider jwtTokenProvider, TokenRevocationList revocationList) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.revocationList = revocationList;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String prefix = jwtTokenProvider.getTokenPrefix() + " ";
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(prefix)) {
+            return chain.filter(exchange);
+        }
+        String token = header.substring(prefix.length());
+        Optional<Claims> claims = jwtTokenProvider.verifyToken(token).filter(this::isNotRevoked);
+        if (claims.isEmpty()) {
+            return chain.filter(exchange);
+        }
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                claims.get().getSubject(), token, List.of());
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+
+    // Comprobación en memoria, sin consultar la base de datos
+    private boolean isNotRevoked(Claims claims) {
+        return claims.getExpiration() == null
+                || !revocationList.isRevoked(claims.getId(), claims.getExpiration().toInstant());
+    }
+}
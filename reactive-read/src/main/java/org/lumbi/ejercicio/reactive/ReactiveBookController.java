@@ -0,0 +1,114 @@
+package org.lumbi.ejercicio.reactive;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.lumbi.ejercicio.config.BookProperties;
+import org.lumbi.ejercicio.dto.BookCursor;
+import org.lumbi.ejercicio.dto.BookResponseDTO;
+import org.lumbi.ejercicio.dto.BookSort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lado de lectura de /api/books sobre WebFlux. Los parámetros, cabeceras y
+ * cursores son los mismos que en BookController.
+ */
+@RestController
+@RequestMapping("/api/books")
+public class ReactiveBookController {
+
+    static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+    static final String HEADER_PAGE_SIZE = "X-Page-Size";
+
+    private final ReactiveBookRepository bookRepository;
+    private final BookProperties bookProperties;
+
+    public ReactiveBookController(ReactiveBookRepository bookRepository, BookProperties bookProperties) {
+        this.bookRepository = bookRepository;
+        this.bookProperties = bookProperties;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<BookResponseDTO>>> getAllBooks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") int size,
+            @RequestParam(defaultValue = "id") String sort,
+            ServerHttpRequest request) {
+        Optional<BookSort> bookSort = BookSort.fromParam(sort);
+        Optional<BookCursor> position = bookSort.flatMap(s -> cursor == null
+                ? Optional.of(BookCursor.first(s))
+                : BookCursor.decode(cursor, s));
+        if (position.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        int pageSize = size <= 0 ? bookProperties.getDefaultPageSize() : Math.min(size, bookProperties.getMaxPageSize());
+        // Una fila de más indica si hay página siguiente sin hacer COUNT
+        return bookRepository.findPage(position.get(), pageSize + 1).collectList().map(rows -> {
+            if (rows.isEmpty()) {
+                return ResponseEntity.noContent().build();
+            }
+            HttpHeaders headers = new HttpHeaders();
+            headers.add(HEADER_PAGE_SIZE, String.valueOf(pageSize));
+            List<BookResponseDTO> items = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+            if (rows.size() > pageSize) {
+                String next = BookCursor.after(bookSort.get(), items.get(pageSize - 1)).encode();
+                String nextUri = UriComponentsBuilder.fromUri(request.getURI())
+                        .replaceQueryParam("cursor", next)
+                        .replaceQueryParam("size", pageSize)
+                        .replaceQueryParam("sort", bookSort.get().getParam())
+                        .toUriString();
+                headers.add(HEADER_NEXT_CURSOR, next);
+                headers.add(HttpHeaders.LINK, "<" + nextUri + ">; rel=\"next\"");
+            }
+            return ResponseEntity.ok().headers(headers).body(items);
+        });
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Flux<BookResponseDTO>> searchBooks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int limit) {
+        List<String> terms = Arrays.stream(q.trim().split("\\s+")).filter(term -> !term.isEmpty()).toList();
+        if (terms.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        int effectiveLimit = limit <= 0
+                ? bookProperties.getDefaultSearchLimit()
+                : Math.min(limit, bookProperties.getMaxSearchLimit());
+        return ResponseEntity.ok(bookRepository.search(terms, effectiveLimit));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<BookResponseDTO>> getBookById(@PathVariable Long id) {
+        return bookRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Catálogo completo en NDJSON. WebFlux solo pide nuevas filas cuando el
+     * cliente ha consumido las anteriores (backpressure), así que la memoria no
+     * depende del tamaño del catálogo.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<BookResponseDTO>> exportBooks() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"books.ndjson\"")
+                .body(bookRepository.streamAll());
+    }
+}
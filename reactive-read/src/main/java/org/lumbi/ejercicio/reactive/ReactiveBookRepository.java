@@ -0,0 +1,125 @@
+package org.lumbi.ejercicio.reactive;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+
+import org.lumbi.ejercicio.dto.BookCursor;
+import org.lumbi.ejercicio.dto.BookResponseDTO;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lecturas de libros con R2DBC sobre las tablas que crea la aplicación
+ * principal. Devuelve las mismas vistas que BookRepository.VIEW_SELECT.
+ */
+@Repository
+public class ReactiveBookRepository {
+
+    static final String VIEW_SELECT = """
+            SELECT b.id, b.isbn, b.bookname, b.publish_year, u.id AS user_id, u.username, b.created_at, b.updated_at
+            FROM books b JOIN users u ON u.id = b.user_id
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveBookRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Libro por ID.
+     */
+    public Mono<BookResponseDTO> findById(long id) {
+        return databaseClient.sql(VIEW_SELECT + "WHERE b.id = :id")
+                .bind("id", id)
+                .map(ReactiveBookRepository::toView)
+                .one();
+    }
+
+    /**
+     * Libros posteriores a un cursor (keyset), como BookRepository.findPageAfter*.
+     *
+     * @param cursor posición tras la que empieza la página
+     * @param limit  número máximo de filas
+     */
+    public Flux<BookResponseDTO> findPage(BookCursor cursor, int limit) {
+        GenericExecuteSpec spec = switch (cursor.sort()) {
+            case ID -> databaseClient.sql(VIEW_SELECT
+                    + "WHERE b.id > :afterId ORDER BY b.id LIMIT :limit");
+            case CREATED_AT -> databaseClient.sql(VIEW_SELECT
+                    + "WHERE b.created_at > :value OR (b.created_at = :value AND b.id > :afterId) "
+                    + "ORDER BY b.created_at, b.id LIMIT :limit")
+                    .bind("value", cursor.createdAt().atOffset(ZoneOffset.UTC));
+            case BOOKNAME -> databaseClient.sql(VIEW_SELECT
+                    + "WHERE b.bookname > :value OR (b.bookname = :value AND b.id > :afterId) "
+                    + "ORDER BY b.bookname, b.id LIMIT :limit")
+                    .bind("value", cursor.value());
+        };
+        return spec.bind("afterId", cursor.lastId())
+                .bind("limit", limit)
+                .map(ReactiveBookRepository::toView)
+                .all();
+    }
+
+    /**
+     * Libros cuyo nombre o ISBN contienen todos los términos (sin distinguir
+     * mayúsculas). Este módulo no mantiene el índice de trigramas de la
+     * aplicación principal, así que recorre la tabla con LIKE.
+     *
+     * @param terms términos de búsqueda
+     * @param limit número máximo de resultados
+     */
+    public Flux<BookResponseDTO> search(List<String> terms, int limit) {
+        StringBuilder sql = new StringBuilder(VIEW_SELECT).append("WHERE 1 = 1");
+        for (int i = 0; i < terms.size(); i++) {
+            sql.append(" AND (LOWER(b.bookname) LIKE :t").append(i).append(" OR LOWER(b.isbn) LIKE :t").append(i)
+                    .append(")");
+        }
+        sql.append(" ORDER BY b.bookname, b.id LIMIT :limit");
+
+        GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("limit", limit);
+        for (int i = 0; i < terms.size(); i++) {
+            spec = spec.bind("t" + i, "%" + escapeLike(terms.get(i).toLowerCase(Locale.ROOT)) + "%");
+        }
+        return spec.map(ReactiveBookRepository::toView).all();
+    }
+
+    /**
+     * Recorre el catálogo completo. Las filas se piden al driver según la
+     * demanda del suscriptor, así que un cliente lento frena la lectura en lugar
+     * de acumular libros en memoria.
+     */
+    public Flux<BookResponseDTO> streamAll() {
+        return databaseClient.sql(VIEW_SELECT + "ORDER BY b.id")
+                .map(ReactiveBookRepository::toView)
+                .all();
+    }
+
+    private static BookResponseDTO toView(Readable row) {
+        return new BookResponseDTO(
+                row.get("id", Long.class),
+                row.get("isbn", String.class),
+                row.get("bookname", String.class),
+                row.get("publish_year", Integer.class),
+                row.get("user_id", Long.class),
+                row.get("username", String.class),
+                toInstant(row.get("created_at", OffsetDateTime.class)),
+                toInstant(row.get("updated_at", OffsetDateTime.class)));
+    }
+
+    private static Instant toInstant(OffsetDateTime value) {
+        return value == null ? null : value.toInstant();
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,22 @@
+package org.lumbi.ejercicio.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * API de solo lectura de libros sobre WebFlux y R2DBC. Atiende las lecturas
+ * con un número fijo y pequeño de hilos (el event loop de Netty) en lugar de
+ * un hilo por petición, y comparte el esquema y los tokens JWT con la
+ * aplicación principal.
+ */
+@EnableScheduling
+@SpringBootApplication(scanBasePackages = "org.lumbi.ejercicio", exclude = ReactiveUserDetailsServiceAutoConfiguration.class)
+public class ReactiveReadApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveReadApplication.class, args);
+	}
+
+}
@@ -0,0 +1,57 @@
+package org.lumbi.ejercicio.reactive;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import org.lumbi.ejercicio.security.TokenRevocationList;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Equivalente reactivo de TokenRevocationService.sync: incorpora a
+ * TokenRevocationList las revocaciones que la aplicación principal guarda en
+ * revoked_tokens (al cerrar sesión), con el mismo intervalo y margen. Así un
+ * token revocado deja de aceptarse aquí como mucho revocation-sync-interval
+ * después.
+ */
+@Component
+public class ReactiveTokenRevocationSync {
+
+    // Mismo margen que TokenRevocationService.SYNC_OVERLAP
+    static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final DatabaseClient databaseClient;
+    private final TokenRevocationList revocationList;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public ReactiveTokenRevocationSync(DatabaseClient databaseClient, TokenRevocationList revocationList) {
+        this.databaseClient = databaseClient;
+        this.revocationList = revocationList;
+    }
+
+    /**
+     * Lee las revocaciones vigentes hechas desde la última sincronización
+     * (todas al arrancar) y descarta las expiradas. Se ejecuta en el hilo del
+     * planificador, no en el event loop, así que puede esperar al resultado.
+     */
+    @Scheduled(fixedDelayString = "#{@jwtProperties.revocationSyncInterval.toMillis()}")
+    public void sync() {
+        Instant now = Instant.now();
+        databaseClient.sql("SELECT jti, expires_at FROM revoked_tokens WHERE revoked_at >= :since AND expires_at > :now")
+                .bind("since", lastSync.minus(SYNC_OVERLAP).atOffset(ZoneOffset.UTC))
+                .bind("now", now.atOffset(ZoneOffset.UTC))
+                .map(row -> {
+                    revocationList.revoke(row.get("jti", String.class),
+                            row.get("expires_at", OffsetDateTime.class).toInstant());
+                    return 1;
+                })
+                .all()
+                .then()
+                .block();
+        revocationList.purgeExpired();
+        lastSync = now;
+    }
+}
@@ -0,0 +1,81 @@
+package org.lumbi.ejercicio.reactive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lumbi.ejercicio.config.JwtProperties;
+import org.lumbi.ejercicio.security.JwtTokenProvider;
+import org.lumbi.ejercicio.security.TokenRevocationList;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.WebFilterChain;
+
+import io.jsonwebtoken.Claims;
+import reactor.core.publisher.Mono;
+
+class JwtAuthenticationWebFilterTest {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private TokenRevocationList revocationList;
+    private JwtAuthenticationWebFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setJwtSecret("xuwWmbISca4EfVJMjNuo9O9NLfnqAqCSmLLUj3leXME=");
+        properties.setJwtExpiration(Duration.ofHours(1));
+        properties.setTokenPrefix("Bearer");
+        jwtTokenProvider = new JwtTokenProvider(properties);
+        revocationList = new TokenRevocationList(properties);
+        filter = new JwtAuthenticationWebFilter(jwtTokenProvider, revocationList);
+    }
+
+    @Test
+    void filter_validToken_publishesAuthentication() {
+        String token = jwtTokenProvider.generateToken("lector", Map.of());
+
+        Authentication authentication = run("Bearer " + token);
+
+        assertNotNull(authentication, "Un token válido debe autenticar la petición");
+        assertEquals("lector", authentication.getName());
+        assertTrue(authentication.isAuthenticated());
+    }
+
+    @Test
+    void filter_invalidOrMissingToken_leavesRequestAnonymous() {
+        assertNull(run("Bearer no-es-un-jwt"), "Un token inválido no debe autenticar la petición");
+        assertNull(run(null), "Sin cabecera Authorization la petición es anónima");
+    }
+
+    @Test
+    void filter_revokedToken_leavesRequestAnonymous() {
+        String token = jwtTokenProvider.generateToken("lector", Map.of());
+        Claims claims = jwtTokenProvider.verifyToken(token).orElseThrow();
+        revocationList.revoke(claims.getId(), claims.getExpiration().toInstant());
+
+        assertNull(run("Bearer " + token), "Un token revocado al cerrar sesión no debe autenticar la petición");
+    }
+
+    private Authentication run(String authorization) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/books");
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        WebFilterChain chain = exchange -> ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .doOnNext(seen::set)
+                .then();
+        filter.filter(MockServerWebExchange.from(request), chain).block();
+        return seen.get();
+    }
+}
@@ -0,0 +1,71 @@
+package org.lumbi.ejercicio.reactive;
+
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lumbi.ejercicio.config.BookProperties;
+import org.lumbi.ejercicio.config.JwtProperties;
+import org.lumbi.ejercicio.dto.BookResponseDTO;
+import org.lumbi.ejercicio.security.JwtTokenProvider;
+import org.lumbi.ejercicio.security.TokenRevocationList;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.WebFilterChainProxy;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import io.jsonwebtoken.Claims;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cadena de seguridad completa delante de ReactiveBookController.
+ */
+class ReactiveSecurityConfigTest {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private TokenRevocationList revocationList;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setJwtSecret("xuwWmbISca4EfVJMjNuo9O9NLfnqAqCSmLLUj3leXME=");
+        properties.setJwtExpiration(Duration.ofHours(1));
+        properties.setTokenPrefix("Bearer");
+        jwtTokenProvider = new JwtTokenProvider(properties);
+        revocationList = new TokenRevocationList(properties);
+
+        ReactiveBookRepository repository = mock(ReactiveBookRepository.class);
+        when(repository.findById(1L)).thenReturn(Mono.just(new BookResponseDTO(1L, "ISBN-1", "Libro", 2020, 1L,
+                "lector", Instant.EPOCH, Instant.EPOCH)));
+        var chain = new ReactiveSecurityConfig().securityWebFilterChain(ServerHttpSecurity.http(), jwtTokenProvider,
+                revocationList);
+        client = WebTestClient.bindToController(new ReactiveBookController(repository, new BookProperties()))
+                .webFilter(new WebFilterChainProxy(chain))
+                .build();
+    }
+
+    @Test
+    void validToken_isAccepted() {
+        String token = jwtTokenProvider.generateToken("lector", Map.of());
+
+        client.get().uri("/api/books/1").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void revokedToken_getsUnauthorized() {
+        String token = jwtTokenProvider.generateToken("lector", Map.of());
+        Claims claims = jwtTokenProvider.verifyToken(token).orElseThrow();
+        revocationList.revoke(claims.getId(), claims.getExpiration().toInstant());
+
+        client.get().uri("/api/books/1").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+}
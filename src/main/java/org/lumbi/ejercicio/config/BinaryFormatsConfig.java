@@ -0,0 +1,35 @@
+package org.lumbi.ejercicio.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Formatos binarios para clientes internos: con Accept (o Content-Type)
+ * application/cbor o application/x-jackson-smile las respuestas y los cuerpos
+ * de petición se codifican en CBOR o Smile en lugar de JSON.
+ *
+ * Los convertidores se construyen con el Jackson2ObjectMapperBuilder de Spring
+ * Boot para que apliquen la misma configuración que el JSON (fechas ISO-8601,
+ * módulos, spring.jackson.*); los que Spring MVC registra por defecto para
+ * estos formatos no la aplican. Spring Boot los coloca en el lugar de esos
+ * convertidores por defecto.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,120 @@
+package org.lumbi.ejercicio.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+@ConfigurationProperties(prefix = "app.books")
+public class BookProperties {
+    private int defaultPageSize = 50;
+    private int maxPageSize = 200;
+    private int defaultSearchLimit = 20;
+    private int maxSearchLimit = 100;
+    private int isbnCacheSize = 4096;
+    private int maxBatchSize = 1000;
+    private int importChunkSize = 500;
+    private int importConcurrency = 1;
+    private int importQueueCapacity = 4;
+    private Duration importRetryAfter = Duration.ofSeconds(30);
+    private int maxUsersPerRequest = 100;
+    private DataSize responseCacheSize = DataSize.ofMegabytes(64);
+
+    public int getDefaultPageSize() {
+        return defaultPageSize;
+    }
+
+    public void setDefaultPageSize(int defaultPageSize) {
+        this.defaultPageSize = defaultPageSize;
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    public int getDefaultSearchLimit() {
+        return defaultSearchLimit;
+    }
+
+    public void setDefaultSearchLimit(int defaultSearchLimit) {
+        this.defaultSearchLimit = defaultSearchLimit;
+    }
+
+    public int getMaxSearchLimit() {
+        return maxSearchLimit;
+    }
+
+    public void setMaxSearchLimit(int maxSearchLimit) {
+        this.maxSearchLimit = maxSearchLimit;
+    }
+
+    public int getIsbnCacheSize() {
+        return isbnCacheSize;
+    }
+
+    public void setIsbnCacheSize(int isbnCacheSize) {
+        this.isbnCacheSize = isbnCacheSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getImportChunkSize() {
+        return importChunkSize;
+    }
+
+    public void setImportChunkSize(int importChunkSize) {
+        this.importChunkSize = importChunkSize;
+    }
+
+    public int getImportConcurrency() {
+        return importConcurrency;
+    }
+
+    public void setImportConcurrency(int importConcurrency) {
+        this.importConcurrency = importConcurrency;
+    }
+
+    public int getImportQueueCapacity() {
+        return importQueueCapacity;
+    }
+
+    public void setImportQueueCapacity(int importQueueCapacity) {
+        this.importQueueCapacity = importQueueCapacity;
+    }
+
+    public Duration getImportRetryAfter() {
+        return importRetryAfter;
+    }
+
+    public void setImportRetryAfter(Duration importRetryAfter) {
+        this.importRetryAfter = importRetryAfter;
+    }
+
+    public int getMaxUsersPerRequest() {
+        return maxUsersPerRequest;
+    }
+
+    public void setMaxUsersPerRequest(int maxUsersPerRequest) {
+        this.maxUsersPerRequest = maxUsersPerRequest;
+    }
+
+    public DataSize getResponseCacheSize() {
+        return responseCacheSize;
+    }
+
+    public void setResponseCacheSize(DataSize responseCacheSize) {
+        this.responseCacheSize = responseCacheSize;
+    }
+}
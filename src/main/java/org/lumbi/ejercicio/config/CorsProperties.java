@@ -11,6 +11,7 @@ public class CorsProperties {
     private List<String> allowedOrigins;
     private List<String> allowedMethods;
     private List<String> allowedHeaders;
+    private List<String> exposedHeaders;
     private boolean allowCredentials;
 
     public List<String> getAllowedOrigins() {
@@ -37,6 +38,14 @@ public class CorsProperties {
         this.allowedHeaders = allowedHeaders;
     }
 
+    public List<String> getExposedHeaders() {
+        return exposedHeaders;
+    }
+
+    public void setExposedHeaders(List<String> exposedHeaders) {
+        this.exposedHeaders = exposedHeaders;
+    }
+
     public boolean isAllowCredentials() {
         return allowCredentials;
     }
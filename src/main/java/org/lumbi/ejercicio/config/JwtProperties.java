@@ -11,6 +11,12 @@ public class JwtProperties {
     private String jwtSecret;
     private Duration jwtExpiration;
     private String tokenPrefix;
+    private long tokenCacheSize = 10_000;
+    private Duration refreshExpiration = Duration.ofDays(14);
+    private Duration refreshSweepInterval = Duration.ofMinutes(10);
+    private int revocationMaxEntries = 100_000;
+    private Duration revocationSyncInterval = Duration.ofSeconds(5);
+    private Duration revocationSweepInterval = Duration.ofMinutes(10);
 
     public String getJwtSecret() {
         return jwtSecret;
@@ -35,4 +41,52 @@ public class JwtProperties {
     public void setTokenPrefix(String tokenPrefix) {
         this.tokenPrefix = tokenPrefix;
     }
-}
\ No newline at end of file
+
+    public long getTokenCacheSize() {
+        return tokenCacheSize;
+    }
+
+    public void setTokenCacheSize(long tokenCacheSize) {
+        this.tokenCacheSize = tokenCacheSize;
+    }
+
+    public Duration getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
+    public void setRefreshExpiration(Duration refreshExpiration) {
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    public Duration getRefreshSweepInterval() {
+        return refreshSweepInterval;
+    }
+
+    public void setRefreshSweepInterval(Duration refreshSweepInterval) {
+        this.refreshSweepInterval = refreshSweepInterval;
+    }
+
+    public int getRevocationMaxEntries() {
+        return revocationMaxEntries;
+    }
+
+    public void setRevocationMaxEntries(int revocationMaxEntries) {
+        this.revocationMaxEntries = revocationMaxEntries;
+    }
+
+    public Duration getRevocationSyncInterval() {
+        return revocationSyncInterval;
+    }
+
+    public void setRevocationSyncInterval(Duration revocationSyncInterval) {
+        this.revocationSyncInterval = revocationSyncInterval;
+    }
+
+    public Duration getRevocationSweepInterval() {
+        return revocationSweepInterval;
+    }
+
+    public void setRevocationSweepInterval(Duration revocationSweepInterval) {
+        this.revocationSweepInterval = revocationSweepInterval;
+    }
+}
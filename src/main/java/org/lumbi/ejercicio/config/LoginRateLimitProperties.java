@@ -0,0 +1,74 @@
+package org.lumbi.ejercicio.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.security.login-limit")
+public class LoginRateLimitProperties {
+    private boolean enabled = true;
+    private int usernameBurst = 5;
+    private Duration usernameInterval = Duration.ofSeconds(12);
+    private int ipBurst = 20;
+    private Duration ipInterval = Duration.ofSeconds(2);
+    private Duration maxPenalty = Duration.ofMinutes(15);
+    private long maxTrackedKeys = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getUsernameBurst() {
+        return usernameBurst;
+    }
+
+    public void setUsernameBurst(int usernameBurst) {
+        this.usernameBurst = usernameBurst;
+    }
+
+    public Duration getUsernameInterval() {
+        return usernameInterval;
+    }
+
+    public void setUsernameInterval(Duration usernameInterval) {
+        this.usernameInterval = usernameInterval;
+    }
+
+    public int getIpBurst() {
+        return ipBurst;
+    }
+
+    public void setIpBurst(int ipBurst) {
+        this.ipBurst = ipBurst;
+    }
+
+    public Duration getIpInterval() {
+        return ipInterval;
+    }
+
+    public void setIpInterval(Duration ipInterval) {
+        this.ipInterval = ipInterval;
+    }
+
+    public Duration getMaxPenalty() {
+        return maxPenalty;
+    }
+
+    public void setMaxPenalty(Duration maxPenalty) {
+        this.maxPenalty = maxPenalty;
+    }
+
+    public long getMaxTrackedKeys() {
+        return maxTrackedKeys;
+    }
+
+    public void setMaxTrackedKeys(long maxTrackedKeys) {
+        this.maxTrackedKeys = maxTrackedKeys;
+    }
+}
@@ -0,0 +1,73 @@
+package org.lumbi.ejercicio.config;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Caché de segundo nivel de Hibernate sobre JCache/Caffeine.
+ *
+ * Las regiones se crean aquí (y no en un fichero de configuración) para que
+ * Hibernate use el mismo CacheManager que se publica como bean: así Actuator
+ * expone sus aciertos, fallos y expulsiones en /actuator/metrics (cache.*).
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String BOOKS_REGION = "books";
+    public static final String USERS_REGION = "users";
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager jcacheManager(SecondLevelCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(),
+                SecondLevelCacheConfig.class.getClassLoader());
+
+        cacheManager.createCache(BOOKS_REGION,
+                region(properties.getEntityTtl(), properties.getEntityMaxSize()));
+        cacheManager.createCache(USERS_REGION,
+                region(properties.getEntityTtl(), properties.getEntityMaxSize()));
+        cacheManager.createCache(QUERY_RESULTS_REGION,
+                region(properties.getQueryTtl(), properties.getQueryMaxSize()));
+        // Una entrada por tabla; nunca debe expirar ni expulsarse, o los
+        // resultados de consultas cacheados dejarían de invalidarse
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, region(null, 0));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager jcacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, jcacheManager);
+    }
+
+    @Bean
+    public JCacheCacheManager cacheManager(CacheManager jcacheManager) {
+        return new JCacheCacheManager(jcacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(Duration ttl, long maxSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        if (maxSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,47 @@
+package org.lumbi.ejercicio.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class SecondLevelCacheProperties {
+    private Duration entityTtl = Duration.ofMinutes(10);
+    private long entityMaxSize = 10_000;
+    private Duration queryTtl = Duration.ofMinutes(1);
+    private long queryMaxSize = 5_000;
+
+    public Duration getEntityTtl() {
+        return entityTtl;
+    }
+
+    public void setEntityTtl(Duration entityTtl) {
+        this.entityTtl = entityTtl;
+    }
+
+    public long getEntityMaxSize() {
+        return entityMaxSize;
+    }
+
+    public void setEntityMaxSize(long entityMaxSize) {
+        this.entityMaxSize = entityMaxSize;
+    }
+
+    public Duration getQueryTtl() {
+        return queryTtl;
+    }
+
+    public void setQueryTtl(Duration queryTtl) {
+        this.queryTtl = queryTtl;
+    }
+
+    public long getQueryMaxSize() {
+        return queryMaxSize;
+    }
+
+    public void setQueryMaxSize(long queryMaxSize) {
+        this.queryMaxSize = queryMaxSize;
+    }
+}
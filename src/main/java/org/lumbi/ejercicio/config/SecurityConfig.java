@@ -1,12 +1,12 @@
 package org.lumbi.ejercicio.config;
 
+import org.lumbi.ejercicio.security.Argon2Calibrator;
 import org.lumbi.ejercicio.security.JwtTokenFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -39,6 +39,7 @@ public class SecurityConfig {
                         .requestMatchers("/h2-console/**").permitAll()
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/v3/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
                         .anyRequest().authenticated())
                 .headers(headers -> headers
                         .frameOptions(frameOptions -> frameOptions.disable()))
@@ -58,12 +59,14 @@ public class SecurityConfig {
             config.setAllowedOrigins(corsProperties.getAllowedOrigins());
             config.setAllowedMethods(corsProperties.getAllowedMethods());
             config.setAllowedHeaders(corsProperties.getAllowedHeaders());
+            config.setExposedHeaders(corsProperties.getExposedHeaders());
             config.setAllowCredentials(corsProperties.isAllowCredentials());
 
         } else {
             config.setAllowedOrigins(List.of("*"));
             config.setAllowedMethods(corsProperties.getAllowedMethods());
             config.setAllowedHeaders(List.of("*"));
+            config.setExposedHeaders(corsProperties.getExposedHeaders());
             config.setAllowCredentials(false);
         }
 
@@ -73,7 +76,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties hashingProperties) {
+        return Argon2Calibrator.resolve(hashingProperties).toEncoder();
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package org.lumbi.ejercicio.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.users")
+public class UserProperties {
+    private int usernameFilterExpectedSize = 100_000;
+    private double usernameFilterFalsePositiveRate = 0.01;
+    private int cacheSize = 10_000;
+    private Duration cacheTtl = Duration.ofMinutes(10);
+
+    public int getUsernameFilterExpectedSize() {
+        return usernameFilterExpectedSize;
+    }
+
+    public void setUsernameFilterExpectedSize(int usernameFilterExpectedSize) {
+        this.usernameFilterExpectedSize = usernameFilterExpectedSize;
+    }
+
+    public double getUsernameFilterFalsePositiveRate() {
+        return usernameFilterFalsePositiveRate;
+    }
+
+    public void setUsernameFilterFalsePositiveRate(double usernameFilterFalsePositiveRate) {
+        this.usernameFilterFalsePositiveRate = usernameFilterFalsePositiveRate;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public void setCacheTtl(Duration cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+}
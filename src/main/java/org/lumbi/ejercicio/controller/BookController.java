@@ -1,18 +1,41 @@
 package org.lumbi.ejercicio.controller;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.lumbi.ejercicio.config.BookProperties;
 import org.lumbi.ejercicio.domain.BookDomain;
-import org.lumbi.ejercicio.domain.UserDomain;
+import org.lumbi.ejercicio.domain.Isbn;
+import org.lumbi.ejercicio.dto.BookBatchResult;
+import org.lumbi.ejercicio.dto.BookBulkFilter;
+import org.lumbi.ejercicio.dto.BookBulkResult;
+import org.lumbi.ejercicio.dto.BookBulkUpdateRequest;
+import org.lumbi.ejercicio.dto.BookCursor;
+import org.lumbi.ejercicio.dto.BookPage;
 import org.lumbi.ejercicio.dto.BookRequestDTO;
+import org.lumbi.ejercicio.dto.BookResponseDTO;
+import org.lumbi.ejercicio.dto.BookSort;
+import org.lumbi.ejercicio.security.JwtPrincipal;
+import org.lumbi.ejercicio.service.BookResponseCache;
+import org.lumbi.ejercicio.service.BookResponseCache.CachedResponse;
+import org.lumbi.ejercicio.service.BookResponseCache.ResponseKey;
 import org.lumbi.ejercicio.service.BookService;
 import org.lumbi.ejercicio.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -28,69 +51,264 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @SecurityRequirement(name = "bearerAuth")
 public class BookController {
 
+    static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+    static final String HEADER_PAGE_SIZE = "X-Page-Size";
+    // Las respuestas de lectura dependen de la representación y la compresión
+    private static final String[] VARY = { HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING };
+    // Restricciones únicas del ISBN (V1__initial_schema.sql)
+    private static final List<String> ISBN_CONSTRAINTS = List.of("uk_books_isbn", "ux_books_isbn13");
+
     @Autowired
     private BookService bookService;
 
     @Autowired
     private UserService userService;
 
-    @Operation(summary = "Obtener todos los libros", description = "Devuelve una lista de todos los libros disponibles")
+    @Autowired
+    private BookProperties bookProperties;
+
+    @Autowired
+    private BookResponseCache responseCache;
+
+    @Operation(summary = "Obtener libros paginados", description = "Devuelve una página de libros usando paginación por cursor. "
+            + "El cursor de la siguiente página se devuelve en la cabecera X-Next-Cursor y en la cabecera Link (rel=next). "
+            + "Admite If-None-Match con el ETag de una respuesta anterior")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de libros", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookDomain.class))),
+            @ApiResponse(responseCode = "200", description = "Página de libros", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookResponseDTO.class))),
             @ApiResponse(responseCode = "204", description = "No hay libros disponibles"),
+            @ApiResponse(responseCode = "304", description = "El catálogo no ha cambiado"),
+            @ApiResponse(responseCode = "400", description = "Cursor u orden no válidos"),
             @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
             @ApiResponse(responseCode = "403", description = "No autorizado")
     })
     @GetMapping
-    public ResponseEntity<List<BookDomain>> getAllBooks() {
-        List<BookDomain> books = bookService.getAllBooks();
-        if (books.isEmpty()) {
-            return ResponseEntity.noContent().build();
+    public ResponseEntity<?> getAllBooks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") int size,
+            @RequestParam(defaultValue = "id") String sort,
+            WebRequest request) {
+        Optional<BookSort> bookSort = BookSort.fromParam(sort);
+        if (bookSort.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<BookCursor> position = cursor == null
+                ? Optional.of(BookCursor.first(bookSort.get()))
+                : BookCursor.decode(cursor, bookSort.get());
+        if (position.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int pageSize = bookService.resolvePageSize(size);
+        String etag = BookETags.forList(bookService.getCatalogVersion(), bookSort.get(), position.get().encode(),
+                pageSize);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(VARY).build();
+        }
+
+        String resource = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", position.get().encode())
+                .replaceQueryParam("size", pageSize)
+                .replaceQueryParam("sort", bookSort.get().getParam())
+                .toUriString();
+        Optional<ResponseKey> key = responseCache.negotiate(request.getHeader(HttpHeaders.ACCEPT))
+                .map(representation -> ResponseKey.forList(resource, representation));
+        Optional<CachedResponse> cached = key.flatMap(k -> responseCache.get(k, etag));
+        if (cached.isPresent()) {
+            return cached.get().toResponse(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        }
+
+        long generation = responseCache.generation();
+        BookPage page = bookService.getBooksPage(position.get(), pageSize);
+        if (page.items().isEmpty()) {
+            return ResponseEntity.noContent().eTag(etag).build();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HEADER_PAGE_SIZE, String.valueOf(pageSize));
+        page.next().map(BookCursor::encode).ifPresent(next -> {
+            String nextUri = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", next)
+                    .replaceQueryParam("size", pageSize)
+                    .replaceQueryParam("sort", bookSort.get().getParam())
+                    .toUriString();
+            headers.add(HEADER_NEXT_CURSOR, next);
+            headers.add(HttpHeaders.LINK, "<" + nextUri + ">; rel=\"next\"");
+        });
+        if (key.isPresent()) {
+            return responseCache.put(key.get(), etag, headers, page.items(), generation)
+                    .toResponse(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        }
+        return ResponseEntity.ok().headers(headers).eTag(etag).varyBy(VARY).body(page.items());
+    }
+
+    @Operation(summary = "Buscar libros", description = "Busca libros cuyo nombre o ISBN contengan los términos indicados (sin distinguir mayúsculas ni tildes). "
+            + "Los resultados se ordenan por relevancia")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Libros encontrados", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "El catálogo no ha cambiado"),
+            @ApiResponse(responseCode = "400", description = "Texto de búsqueda vacío"),
+            @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
+            @ApiResponse(responseCode = "403", description = "No autorizado")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<?> searchBooks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int limit,
+            WebRequest request) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        String etag = BookETags.forList(bookService.getCatalogVersion(), q, limit);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(VARY).build();
+        }
+        Optional<ResponseKey> key = responseCache.negotiate(request.getHeader(HttpHeaders.ACCEPT))
+                .map(representation -> ResponseKey.forList("search:" + limit + ":" + q, representation));
+        Optional<CachedResponse> cached = key.flatMap(k -> responseCache.get(k, etag));
+        if (cached.isPresent()) {
+            return cached.get().toResponse(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        }
+
+        long generation = responseCache.generation();
+        List<BookResponseDTO> books = bookService.searchBooks(q, limit);
+        if (key.isPresent()) {
+            return responseCache.put(key.get(), etag, new HttpHeaders(), books, generation)
+                    .toResponse(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
         }
-        return ResponseEntity.ok(books);
+        return ResponseEntity.ok().eTag(etag).varyBy(VARY).body(books);
     }
 
-    @Operation(summary = "Obtener libro por ID", description = "Devuelve un libro según su ID")
+    @Operation(summary = "Obtener libro por ID", description = "Devuelve un libro según su ID. "
+            + "Admite If-None-Match e If-Modified-Since; si el libro no ha cambiado responde 304 sin cargarlo")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Libro encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookDomain.class))),
+            @ApiResponse(responseCode = "200", description = "Libro encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "El libro no ha cambiado"),
             @ApiResponse(responseCode = "404", description = "Libro no encontrado"),
             @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
             @ApiResponse(responseCode = "403", description = "No autorizado")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<BookDomain> getBookById(@PathVariable Long id) {
-        Optional<BookDomain> book = bookService.getBookById(id);
-        return book.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<?> getBookById(@PathVariable Long id, WebRequest request) {
+        Optional<Instant> version = bookService.getBookVersion(id);
+        String etag = version.map(updatedAt -> BookETags.forBook(id, updatedAt)).orElse(null);
+        if (etag != null && request.checkNotModified(etag, version.get().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(VARY).build();
+        }
+
+        // Los libros más leídos se sirven ya codificados (y comprimidos) sin
+        // cargarlos ni serializarlos; el ETag garantiza que siguen vigentes
+        Optional<ResponseKey> key = responseCache.negotiate(request.getHeader(HttpHeaders.ACCEPT))
+                .map(representation -> ResponseKey.forBook(id, representation));
+        Optional<CachedResponse> cached = key.flatMap(k -> responseCache.get(k, etag));
+        if (cached.isPresent()) {
+            return cached.get().toResponse(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        }
+
+        long generation = responseCache.generation();
+        Optional<BookResponseDTO> book = bookService.getBookById(id);
+        if (book.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (key.isEmpty() || book.get().updatedAt() == null) {
+            return withVersion(book.get());
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setLastModified(book.get().updatedAt());
+        return responseCache.put(key.get(), BookETags.forBook(id, book.get().updatedAt()), headers, book.get(),
+                generation).toResponse(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
     }
 
-    @Operation(summary = "Crear nuevo libro", description = "Crea un nuevo libro asociado a un usuario existente")
+    @Operation(summary = "Obtener libro por ISBN", description = "Devuelve un libro según su ISBN. Admite ISBN-10 o ISBN-13, con o sin guiones")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Libro creado exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookDomain.class))),
-            @ApiResponse(responseCode = "400", description = "ID de usuario inválido o datos incorrectos"),
+            @ApiResponse(responseCode = "200", description = "Libro encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "El libro no ha cambiado"),
+            @ApiResponse(responseCode = "400", description = "ISBN no válido"),
+            @ApiResponse(responseCode = "404", description = "Libro no encontrado"),
             @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
             @ApiResponse(responseCode = "403", description = "No autorizado")
     })
-    @PostMapping
-    public ResponseEntity<BookDomain> createBook(@Valid @RequestBody BookRequestDTO bookDTO) {
-        Optional<UserDomain> userOpt = userService.findById(bookDTO.getAddedById());
-        if (userOpt.isEmpty()) {
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<BookResponseDTO> getBookByIsbn(@PathVariable String isbn) {
+        OptionalLong isbn13 = Isbn.toIsbn13(isbn);
+        if (isbn13.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
+        // El libro suele salir de IsbnLookupCache, así que basta con el ETag de
+        // la respuesta: Spring contesta 304 sin serializar el cuerpo
+        return bookService.getBookByIsbn13(isbn13.getAsLong())
+                .map(BookController::withVersion)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Crear nuevo libro", description = "Crea un nuevo libro asociado al usuario autenticado; "
+            + "no se admite un addedById de otro usuario")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Libro creado exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookDomain.class))),
+            @ApiResponse(responseCode = "400", description = "Datos incorrectos"),
+            @ApiResponse(responseCode = "409", description = "Ya existe un libro con ese ISBN"),
+            @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
+            @ApiResponse(responseCode = "403", description = "No autorizado o addedById de otro usuario")
+    })
+    @PostMapping
+    public ResponseEntity<?> createBook(@Valid @RequestBody BookRequestDTO bookDTO,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        // El propietario es el usuario del token y se asocia con una referencia,
+        // sin consultar la tabla users; un addedById distinto se rechaza
+        if (principal == null || principal.userId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (foreignOwner(bookDTO.getAddedById(), principal)) {
+            return foreignOwnerResponse();
+        }
 
         BookDomain book = new BookDomain();
         book.setISBN(bookDTO.getIsbn());
         book.setBookName(bookDTO.getBookname());
         book.setPublishYear(bookDTO.getPublish_year());
-        book.setAddedBy(userOpt.get());
+        book.setAddedBy(userService.getReference(principal.userId()));
 
         BookDomain savedBook = bookService.saveBook(book);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedBook);
     }
 
+    @Operation(summary = "Crear libros en lote", description = "Crea varios libros en una sola petición. "
+            + "Cada libro se valida por separado y la respuesta indica el resultado de cada uno, en el mismo orden. "
+            + "Los libros se asocian al usuario autenticado; no se admite un addedById de otro usuario")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Todos los libros se crearon", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookBatchResult.class))),
+            @ApiResponse(responseCode = "207", description = "Algunos libros no se crearon; ver el resultado de cada uno"),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o demasiado grande"),
+            @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
+            @ApiResponse(responseCode = "403", description = "No autorizado o addedById de otro usuario")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBooks(@RequestBody List<BookRequestDTO> books,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        if (books.isEmpty() || books.size() > bookProperties.getMaxBatchSize()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "El lote debe tener entre 1 y " + bookProperties.getMaxBatchSize() + " libros"));
+        }
+        if (principal == null || principal.userId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // Como en createBook, el propietario es siempre el usuario del token
+        boolean foreignOwner = books.stream().anyMatch(book -> book != null && book.getAddedById() != null
+                && !book.getAddedById().equals(principal.userId()));
+        if (foreignOwner) {
+            return foreignOwnerResponse();
+        }
+        books.stream().filter(book -> book != null).forEach(book -> book.setAddedById(principal.userId()));
+        List<BookBatchResult> results = bookService.saveBooks(books);
+        boolean allCreated = results.stream().allMatch(BookBatchResult::isCreated);
+        return ResponseEntity.status(allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(results);
+    }
+
     @Operation(summary = "Actualizar libro", description = "Actualiza un libro existente según su ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Libro actualizado exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookDomain.class))),
             @ApiResponse(responseCode = "404", description = "Libro no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Ya existe un libro con ese ISBN"),
             @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
             @ApiResponse(responseCode = "403", description = "No autorizado")
     })
@@ -115,4 +333,115 @@ public class BookController {
         boolean deleted = bookService.deleteBook(id);
         return deleted ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
     }
-}
\ No newline at end of file
+
+    // Respuesta 200 con ETag y Last-Modified del libro
+    private static ResponseEntity<BookResponseDTO> withVersion(BookResponseDTO book) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().varyBy(VARY);
+        if (book.updatedAt() != null) {
+            builder.eTag(BookETags.forBook(book.id(), book.updatedAt())).lastModified(book.updatedAt());
+        }
+        return builder.body(book);
+    }
+
+    @Operation(summary = "Actualizar libros en bloque", description = "Asigna el año de publicación o el usuario propietario "
+            + "a los libros del usuario autenticado que cumplan el filtro (IDs, usuario y rango de años), con una única "
+            + "sentencia. El propietario solo puede ser el usuario autenticado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Número de libros actualizados", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookBulkResult.class))),
+            @ApiResponse(responseCode = "400", description = "Filtro vacío o nada que actualizar"),
+            @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
+            @ApiResponse(responseCode = "403", description = "No autorizado o addedById de otro usuario")
+    })
+    @PatchMapping("/bulk")
+    public ResponseEntity<?> updateBooks(@RequestBody BookBulkUpdateRequest request,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        if (request.filter() == null || request.filter().isEmpty() || !request.hasChanges()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Deben indicarse un filtro y al menos un campo a actualizar"));
+        }
+        if (tooManyIds(request.filter())) {
+            return tooManyIdsResponse();
+        }
+        if (principal == null || principal.userId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // Solo se modifican libros del usuario del token y solo pueden asignarse a él
+        if (foreignOwner(request.filter().addedById(), principal) || foreignOwner(request.addedById(), principal)) {
+            return foreignOwnerResponse();
+        }
+        BookBulkUpdateRequest owned = new BookBulkUpdateRequest(request.filter().ownedBy(principal.userId()),
+                request.publishYear(), request.addedById());
+        return ResponseEntity.ok(new BookBulkResult(bookService.updateBooks(owned)));
+    }
+
+    @Operation(summary = "Eliminar libros en bloque", description = "Elimina los libros del usuario autenticado que cumplan "
+            + "el filtro (IDs, usuario y rango de años) con una única sentencia")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Número de libros eliminados", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookBulkResult.class))),
+            @ApiResponse(responseCode = "400", description = "Filtro vacío"),
+            @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
+            @ApiResponse(responseCode = "403", description = "No autorizado o addedById de otro usuario")
+    })
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<?> deleteBooks(@RequestBody BookBulkFilter filter,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        if (filter.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Debe indicarse al menos un criterio"));
+        }
+        if (tooManyIds(filter)) {
+            return tooManyIdsResponse();
+        }
+        if (principal == null || principal.userId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (foreignOwner(filter.addedById(), principal)) {
+            return foreignOwnerResponse();
+        }
+        return ResponseEntity.ok(new BookBulkResult(bookService.deleteBooks(filter.ownedBy(principal.userId()))));
+    }
+
+    private static boolean foreignOwner(Long addedById, JwtPrincipal principal) {
+        return addedById != null && !addedById.equals(principal.userId());
+    }
+
+    private static ResponseEntity<Map<String, String>> foreignOwnerResponse() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("error", "addedById debe ser el usuario autenticado"));
+    }
+
+    private boolean tooManyIds(BookBulkFilter filter) {
+        return filter.ids() != null && filter.ids().size() > bookProperties.getMaxBatchSize();
+    }
+
+    private ResponseEntity<Map<String, String>> tooManyIdsResponse() {
+        return ResponseEntity.badRequest()
+                .body(Map.of("error", "El filtro admite como mucho " + bookProperties.getMaxBatchSize() + " IDs"));
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, String>> handleDuplicateIsbn(DataIntegrityViolationException ex) {
+        // Solo un ISBN repetido es un conflicto; cualquier otra restricción
+        // (usuario inexistente, columna obligatoria...) es un error del cliente
+        if (!violatesIsbnConstraint(ex)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Datos incorrectos"));
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Ya existe un libro con ese ISBN"));
+    }
+
+    static boolean violatesIsbnConstraint(DataIntegrityViolationException ex) {
+        String constraint = null;
+        for (Throwable cause = ex; cause != null && constraint == null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                constraint = violation.getConstraintName();
+            }
+        }
+        if (constraint == null) {
+            constraint = ex.getMostSpecificCause().getMessage();
+        }
+        // H2 informa el nombre del índice con esquema y sufijos
+        // (PUBLIC.UK_BOOKS_ISBN_INDEX_3), de ahí el contains
+        String name = constraint == null ? "" : constraint.toLowerCase(Locale.ROOT);
+        return ISBN_CONSTRAINTS.stream().anyMatch(name::contains);
+    }
+}
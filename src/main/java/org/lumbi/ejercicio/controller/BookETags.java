@@ -0,0 +1,55 @@
+package org.lumbi.ejercicio.controller;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.lumbi.ejercicio.dto.BookCatalogVersion;
+
+/**
+ * ETags de los recursos de libros. Se calculan a partir de updatedAt (con
+ * precisión de microsegundos, la de la columna) para poder responder 304 sin
+ * cargar ni serializar los libros.
+ *
+ * Son débiles (W/"..."): no dependen de la representación (JSON, CBOR o
+ * Smile) ni de la compresión, así que los bytes de dos respuestas con el mismo
+ * ETag pueden ser distintos. Las respuestas llevan Vary: Accept,
+ * Accept-Encoding para que las cachés intermedias no las mezclen.
+ */
+final class BookETags {
+
+    private BookETags() {
+    }
+
+    /**
+     * ETag de un libro.
+     *
+     * @param id        ID del libro
+     * @param updatedAt fecha de su última modificación
+     * @return ETag débil, con comillas
+     */
+    static String forBook(Long id, Instant updatedAt) {
+        return weak("b" + id + "-" + Long.toString(micros(updatedAt), 36));
+    }
+
+    /**
+     * ETag de una lista de libros: versión del catálogo más los parámetros que
+     * determinan el contenido de la respuesta.
+     *
+     * @param version versión del catálogo
+     * @param params  parámetros de la petición
+     * @return ETag débil, con comillas
+     */
+    static String forList(BookCatalogVersion version, Object... params) {
+        long lastUpdated = version.lastUpdated() == null ? 0 : micros(version.lastUpdated());
+        return weak("l" + version.count() + "-" + Long.toString(lastUpdated, 36)
+                + "-" + Integer.toHexString(Arrays.hashCode(params)));
+    }
+
+    private static String weak(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+    private static long micros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,45 @@
+package org.lumbi.ejercicio.controller;
+
+import org.lumbi.ejercicio.service.BookExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/books/export")
+@Tag(name = "Books", description = "API de gestión de libros")
+@SecurityRequirement(name = "bearerAuth")
+public class BookExportController {
+
+    private final BookExportService bookExportService;
+
+    public BookExportController(BookExportService bookExportService) {
+        this.bookExportService = bookExportService;
+    }
+
+    @Operation(summary = "Exportar catálogo", description = "Devuelve todos los libros en formato NDJSON (un objeto JSON por línea) mediante streaming")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catálogo en NDJSON", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)),
+            @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
+            @ApiResponse(responseCode = "403", description = "No autorizado")
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        StreamingResponseBody body = bookExportService::exportNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"books.ndjson\"")
+                .body(body);
+    }
+}
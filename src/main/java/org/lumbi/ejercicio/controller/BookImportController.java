@@ -0,0 +1,104 @@
+package org.lumbi.ejercicio.controller;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.lumbi.ejercicio.dto.BookImportStatus;
+import org.lumbi.ejercicio.security.JwtPrincipal;
+import org.lumbi.ejercicio.service.BookImportService;
+import org.lumbi.ejercicio.service.BookImportUnavailableException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/books/import")
+@Tag(name = "Books", description = "API de gestión de libros")
+@SecurityRequirement(name = "bearerAuth")
+public class BookImportController {
+
+    private final BookImportService bookImportService;
+
+    public BookImportController(BookImportService bookImportService) {
+        this.bookImportService = bookImportService;
+    }
+
+    @Operation(summary = "Importar libros", description = "Sube un fichero CSV (cabecera isbn,bookname,publish_year,addedById) "
+            + "o un array JSON de libros y crea un trabajo de importación en segundo plano. "
+            + "Los libros se asocian al usuario autenticado; las filas con el addedById de otro usuario se rechazan. "
+            + "La cabecera Location apunta al estado del trabajo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Trabajo creado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookImportStatus.class))),
+            @ApiResponse(responseCode = "400", description = "Fichero vacío o que no es CSV ni JSON"),
+            @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
+            @ApiResponse(responseCode = "403", description = "No autorizado"),
+            @ApiResponse(responseCode = "503", description = "Demasiadas importaciones en curso; ver Retry-After")
+    })
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importBooks(@RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal JwtPrincipal principal) throws IOException {
+        if (principal == null || principal.userId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "El fichero está vacío"));
+        }
+        Optional<BookImportStatus> job = bookImportService.submit(file, principal.userId());
+        if (job.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Se esperaba un fichero CSV o JSON"));
+        }
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(job.get().id())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job.get());
+    }
+
+    @Operation(summary = "Estado de una importación", description = "Devuelve el progreso, el rendimiento y las filas rechazadas de un trabajo de importación")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado del trabajo", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookImportStatus.class))),
+            @ApiResponse(responseCode = "404", description = "Trabajo no encontrado"),
+            @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
+            @ApiResponse(responseCode = "403", description = "No autorizado")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<BookImportStatus> getImportStatus(@PathVariable UUID id) {
+        return bookImportService.getStatus(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @ExceptionHandler(BookImportUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleImportUnavailable(BookImportUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(ex.getRetryAfter()))
+                .body(Map.of("error", "Servicio saturado, inténtalo de nuevo más tarde"));
+    }
+
+    private static String retryAfterSeconds(Duration wait) {
+        return String.valueOf(Math.max(1, (wait.toMillis() + 999) / 1000));
+    }
+}
@@ -0,0 +1,95 @@
+package org.lumbi.ejercicio.controller;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.lumbi.ejercicio.config.BookProperties;
+import org.lumbi.ejercicio.dto.BookResponseDTO;
+import org.lumbi.ejercicio.dto.UserBookSummary;
+import org.lumbi.ejercicio.service.BookService;
+import org.lumbi.ejercicio.service.UserService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/users")
+@Tag(name = "User books", description = "Consulta de los libros añadidos por cada usuario")
+@SecurityRequirement(name = "bearerAuth")
+public class UserBooksController {
+
+    private final BookService bookService;
+    private final UserService userService;
+    private final BookProperties bookProperties;
+
+    public UserBooksController(BookService bookService, UserService userService, BookProperties bookProperties) {
+        this.bookService = bookService;
+        this.userService = userService;
+        this.bookProperties = bookProperties;
+    }
+
+    @Operation(summary = "Libros de un usuario", description = "Devuelve los libros añadidos por un usuario")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Libros del usuario", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Usuario no encontrado"),
+            @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
+            @ApiResponse(responseCode = "403", description = "No autorizado")
+    })
+    @GetMapping("/{id}/books")
+    public ResponseEntity<List<BookResponseDTO>> getUserBooks(@PathVariable Long id) {
+        if (userService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(bookService.getBooksByUser(id));
+    }
+
+    @Operation(summary = "Libros de varios usuarios", description = "Devuelve los libros de cada usuario indicado, agrupados por ID de usuario, con una sola consulta")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Libros agrupados por usuario"),
+            @ApiResponse(responseCode = "400", description = "Demasiados usuarios"),
+            @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
+            @ApiResponse(responseCode = "403", description = "No autorizado")
+    })
+    @GetMapping("/books")
+    public ResponseEntity<?> getBooksByUsers(@RequestParam List<Long> ids) {
+        Set<Long> userIds = new LinkedHashSet<>(ids);
+        if (userIds.size() > bookProperties.getMaxUsersPerRequest()) {
+            return tooManyUsers();
+        }
+        return ResponseEntity.ok(bookService.getBooksByUsers(userIds));
+    }
+
+    @Operation(summary = "Resumen de libros por usuario", description = "Devuelve cuántos libros ha añadido cada usuario indicado, sin cargar los libros")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Número de libros por usuario", content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserBookSummary.class))),
+            @ApiResponse(responseCode = "400", description = "Demasiados usuarios"),
+            @ApiResponse(responseCode = "401", description = "No autenticado - Token JWT requerido"),
+            @ApiResponse(responseCode = "403", description = "No autorizado")
+    })
+    @GetMapping("/books/summary")
+    public ResponseEntity<?> summarizeBooksByUsers(@RequestParam List<Long> ids) {
+        Set<Long> userIds = new LinkedHashSet<>(ids);
+        if (userIds.size() > bookProperties.getMaxUsersPerRequest()) {
+            return tooManyUsers();
+        }
+        return ResponseEntity.ok(bookService.summarizeBooksByUsers(userIds));
+    }
+
+    private ResponseEntity<Map<String, String>> tooManyUsers() {
+        return ResponseEntity.badRequest()
+                .body(Map.of("error", "Se admiten como máximo " + bookProperties.getMaxUsersPerRequest() + " usuarios"));
+    }
+}
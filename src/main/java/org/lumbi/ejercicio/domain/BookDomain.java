@@ -1,31 +1,60 @@
 package org.lumbi.ejercicio.domain;
 
+import java.util.OptionalLong;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.lumbi.ejercicio.config.SecondLevelCacheConfig;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
-@Table(name = "books")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.BOOKS_REGION)
+// Los índices los crean las migraciones (db/migration); se declaran también
+// aquí para tener a la vista los caminos de acceso de la entidad
+@Table(name = "books", indexes = {
+        @Index(name = "ux_books_isbn13", columnList = "isbn13", unique = true),
+        @Index(name = "ix_books_user_id", columnList = "user_id, id"),
+        @Index(name = "ix_books_publish_year", columnList = "publish_year"),
+        @Index(name = "ix_books_updated_at", columnList = "updated_at"),
+        @Index(name = "ix_books_created_at", columnList = "created_at, id"),
+        @Index(name = "ix_books_bookname", columnList = "bookname, id") })
 public class BookDomain extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con optimizador pooled: un viaje a la base de datos por cada
+    // 50 ids y sin impedir los lotes JDBC (IDENTITY obliga a insertar uno a uno)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
     @Column(nullable = false, unique = true)
     private String isbn;
 
+    // ISBN-13 canónico (null si el ISBN no es válido); dos formas del mismo
+    // ISBN ("978-0-306-40615-7" y "0306406152") comparten este valor
+    @JsonIgnore
+    @Column(name = "isbn13")
+    private Long isbn13;
+
     @NotBlank
     @Column(nullable = false)
     private String bookname;
@@ -54,6 +83,10 @@ public class BookDomain extends BaseEntity {
         return isbn;
     }
 
+    public Long getIsbn13() {
+        return isbn13;
+    }
+
     public Integer getPublishYear() {
         return publish_year;
     }
@@ -64,6 +97,8 @@ public class BookDomain extends BaseEntity {
 
     public void setISBN(String isbn) {
         this.isbn = isbn;
+        OptionalLong canonical = Isbn.toIsbn13(isbn);
+        this.isbn13 = canonical.isPresent() ? canonical.getAsLong() : null;
     }
 
     public void setBookName(String name) {
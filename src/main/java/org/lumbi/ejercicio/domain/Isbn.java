@@ -0,0 +1,87 @@
+package org.lumbi.ejercicio.domain;
+
+import java.util.OptionalLong;
+
+/**
+ * Normalización de ISBN. Convierte ISBN-10 e ISBN-13 (con o sin guiones o
+ * espacios) a su forma canónica ISBN-13, representada como long para poder
+ * indexarla y compararla sin crear cadenas.
+ */
+public final class Isbn {
+
+    private Isbn() {
+    }
+
+    /**
+     * Calcula el ISBN-13 canónico de un texto.
+     *
+     * @param raw ISBN-10 o ISBN-13, admite guiones, espacios y el prefijo "ISBN"
+     * @return ISBN-13 como número o vacío si el texto no es un ISBN válido
+     */
+    public static OptionalLong toIsbn13(String raw) {
+        if (raw == null) {
+            return OptionalLong.empty();
+        }
+        String compact = raw.replaceAll("[\\s-]", "").toUpperCase();
+        if (compact.startsWith("ISBN")) {
+            compact = compact.substring(4).replaceFirst("^(1[03])?:?", "");
+        }
+        return switch (compact.length()) {
+            case 10 -> fromIsbn10(compact);
+            case 13 -> fromIsbn13(compact);
+            default -> OptionalLong.empty();
+        };
+    }
+
+    /**
+     * Formatea un ISBN-13 canónico como 13 dígitos.
+     *
+     * @param isbn13 ISBN-13 como número
+     * @return ISBN-13 sin separadores
+     */
+    public static String format(long isbn13) {
+        return String.format("%013d", isbn13);
+    }
+
+    private static OptionalLong fromIsbn10(String isbn10) {
+        int sum = 0;
+        for (int i = 0; i < 10; i++) {
+            char c = isbn10.charAt(i);
+            int digit;
+            if (c == 'X' && i == 9) {
+                digit = 10;
+            } else if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else {
+                return OptionalLong.empty();
+            }
+            sum += digit * (10 - i);
+        }
+        if (sum % 11 != 0) {
+            return OptionalLong.empty();
+        }
+        String body = "978" + isbn10.substring(0, 9);
+        return OptionalLong.of(Long.parseLong(body) * 10 + isbn13CheckDigit(body));
+    }
+
+    private static OptionalLong fromIsbn13(String isbn13) {
+        if (!isbn13.chars().allMatch(c -> c >= '0' && c <= '9')
+                || !(isbn13.startsWith("978") || isbn13.startsWith("979"))) {
+            return OptionalLong.empty();
+        }
+        int check = isbn13.charAt(12) - '0';
+        if (isbn13CheckDigit(isbn13.substring(0, 12)) != check) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(Long.parseLong(isbn13));
+    }
+
+    private static int isbn13CheckDigit(String first12) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            int digit = first12.charAt(i) - '0';
+            sum += (i % 2 == 0) ? digit : digit * 3;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,63 @@
+package org.lumbi.ejercicio.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Token JWT revocado antes de su expiración. Se guarda para que la
+ * revocación sobreviva a un reinicio y llegue al resto de nodos; las
+ * comprobaciones se hacen siempre contra TokenRevocationList, en memoria.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "ux_revoked_tokens_jti", columnList = "jti", unique = true),
+        @Index(name = "ix_revoked_tokens_revoked_at", columnList = "revoked_at"),
+        @Index(name = "ix_revoked_tokens_expires_at", columnList = "expires_at") })
+public class RevokedTokenDomain {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "revoked_tokens_seq")
+    @SequenceGenerator(name = "revoked_tokens_seq", sequenceName = "revoked_tokens_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    public RevokedTokenDomain() {
+    }
+
+    public RevokedTokenDomain(String jti, Instant expiresAt, Instant revokedAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+}
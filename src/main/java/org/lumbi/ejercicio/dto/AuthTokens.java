@@ -0,0 +1,10 @@
+package org.lumbi.ejercicio.dto;
+
+/**
+ * Tokens emitidos al iniciar sesión o al renovar la sesión.
+ *
+ * @param accessToken  JWT de acceso
+ * @param refreshToken refresh token opaco (de un solo uso)
+ */
+public record AuthTokens(String accessToken, String refreshToken) {
+}
@@ -0,0 +1,28 @@
+package org.lumbi.ejercicio.dto;
+
+/**
+ * Resultado del alta de un libro dentro de un lote.
+ *
+ * @param index  posición del libro en la petición
+ * @param status resultado del alta
+ * @param id     ID asignado o null si no se creó
+ * @param error  motivo del fallo o null si se creó
+ */
+public record BookBatchResult(int index, Status status, Long id, String error) {
+
+    public enum Status {
+        CREATED, INVALID, UNKNOWN_USER, DUPLICATE_ISBN
+    }
+
+    public static BookBatchResult created(int index, Long id) {
+        return new BookBatchResult(index, Status.CREATED, id, null);
+    }
+
+    public static BookBatchResult failed(int index, Status status, String error) {
+        return new BookBatchResult(index, status, null, error);
+    }
+
+    public boolean isCreated() {
+        return status == Status.CREATED;
+    }
+}
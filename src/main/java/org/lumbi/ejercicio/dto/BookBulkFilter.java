@@ -0,0 +1,28 @@
+package org.lumbi.ejercicio.dto;
+
+import java.util.List;
+
+/**
+ * Criterios de selección de una operación masiva sobre libros. Los criterios
+ * indicados se combinan con AND y al menos uno es obligatorio.
+ *
+ * @param ids             IDs de los libros
+ * @param addedById       ID del usuario que añadió los libros
+ * @param publishYearFrom año de publicación mínimo (incluido)
+ * @param publishYearTo   año de publicación máximo (incluido)
+ */
+public record BookBulkFilter(List<Long> ids, Long addedById, Integer publishYearFrom, Integer publishYearTo) {
+
+    public boolean isEmpty() {
+        return (ids == null || ids.isEmpty()) && addedById == null && publishYearFrom == null && publishYearTo == null;
+    }
+
+    /**
+     * Mismo filtro limitado a los libros de un usuario.
+     *
+     * @param userId ID del usuario
+     */
+    public BookBulkFilter ownedBy(Long userId) {
+        return new BookBulkFilter(ids, userId, publishYearFrom, publishYearTo);
+    }
+}
@@ -0,0 +1,9 @@
+package org.lumbi.ejercicio.dto;
+
+/**
+ * Resultado de una operación masiva.
+ *
+ * @param affected número de libros modificados o eliminados
+ */
+public record BookBulkResult(int affected) {
+}
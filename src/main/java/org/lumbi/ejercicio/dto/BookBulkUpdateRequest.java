@@ -0,0 +1,16 @@
+package org.lumbi.ejercicio.dto;
+
+/**
+ * Actualización masiva: los campos no nulos se asignan a todos los libros que
+ * cumplan el filtro.
+ *
+ * @param filter      libros afectados
+ * @param publishYear nuevo año de publicación
+ * @param addedById   ID del nuevo usuario propietario
+ */
+public record BookBulkUpdateRequest(BookBulkFilter filter, Integer publishYear, Long addedById) {
+
+    public boolean hasChanges() {
+        return publishYear != null || addedById != null;
+    }
+}
@@ -0,0 +1,13 @@
+package org.lumbi.ejercicio.dto;
+
+import java.time.Instant;
+
+/**
+ * Versión del catálogo de libros para peticiones condicionales: cualquier
+ * alta o modificación cambia lastUpdated y cualquier baja cambia count.
+ *
+ * @param count       número de libros
+ * @param lastUpdated fecha de la última modificación o null si no hay libros
+ */
+public record BookCatalogVersion(long count, Instant lastUpdated) {
+}
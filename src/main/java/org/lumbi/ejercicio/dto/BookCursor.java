@@ -0,0 +1,99 @@
+package org.lumbi.ejercicio.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Posición opaca dentro del listado de libros para la paginación por cursor
+ * (keyset). Guarda el valor de la columna de orden y el id de la última fila
+ * devuelta, de modo que la siguiente página se obtiene con un WHERE sobre
+ * índice en lugar de un OFFSET.
+ *
+ * @param sort   criterio de orden con el que se generó el cursor
+ * @param value  valor de la columna de orden de la última fila
+ * @param lastId id de la última fila devuelta
+ */
+public record BookCursor(BookSort sort, String value, long lastId) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Cursor que apunta antes de la primera fila para el criterio indicado.
+     *
+     * @param sort criterio de orden
+     * @return cursor inicial
+     */
+    public static BookCursor first(BookSort sort) {
+        return switch (sort) {
+            case ID -> new BookCursor(sort, "", 0L);
+            case CREATED_AT -> new BookCursor(sort, Instant.EPOCH.toString(), 0L);
+            case BOOKNAME -> new BookCursor(sort, "", 0L);
+        };
+    }
+
+    /**
+     * Cursor que apunta justo después del libro indicado.
+     *
+     * @param sort criterio de orden
+     * @param book último libro de la página
+     * @return cursor a la siguiente página
+     */
+    public static BookCursor after(BookSort sort, BookResponseDTO book) {
+        String value = switch (sort) {
+            case ID -> "";
+            case CREATED_AT -> book.createdAt().toString();
+            case BOOKNAME -> book.bookName();
+        };
+        return new BookCursor(sort, value, book.id());
+    }
+
+    /**
+     * Codifica el cursor como texto opaco apto para URL.
+     *
+     * @return cursor codificado en Base64 URL-safe
+     */
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + lastId + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente.
+     *
+     * @param encoded  cursor opaco
+     * @param expected criterio de orden de la petición actual
+     * @return Optional con el cursor o vacío si está mal formado o no
+     *         corresponde al criterio de orden
+     */
+    public static Optional<BookCursor> decode(String encoded, BookSort expected) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 3);
+            if (parts.length != 3) {
+                return Optional.empty();
+            }
+            BookCursor cursor = new BookCursor(BookSort.valueOf(parts[0]), parts[2], Long.parseLong(parts[1]));
+            if (cursor.sort() != expected) {
+                return Optional.empty();
+            }
+            if (cursor.sort() == BookSort.CREATED_AT) {
+                cursor.createdAt();
+            }
+            return Optional.of(cursor);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Valor de orden interpretado como instante (solo para CREATED_AT).
+     *
+     * @return instante de creación de la última fila
+     */
+    public Instant createdAt() {
+        return Instant.parse(value);
+    }
+}
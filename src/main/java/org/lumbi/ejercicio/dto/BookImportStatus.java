@@ -0,0 +1,35 @@
+package org.lumbi.ejercicio.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Estado de un trabajo de importación de libros.
+ *
+ * @param id            identificador del trabajo
+ * @param format        formato del fichero (CSV o JSON)
+ * @param status        estado del trabajo
+ * @param processed     filas leídas
+ * @param created       libros creados
+ * @param rejected      filas rechazadas
+ * @param rowsPerSecond filas procesadas por segundo desde el inicio
+ * @param submittedAt   fecha de envío
+ * @param startedAt     fecha de inicio o null si sigue en cola
+ * @param finishedAt    fecha de fin o null si no ha terminado
+ * @param error         motivo del fallo del trabajo o null
+ * @param rejections    primeras filas rechazadas y su motivo
+ */
+public record BookImportStatus(UUID id, String format, String status, long processed, long created, long rejected,
+        double rowsPerSecond, Instant submittedAt, Instant startedAt, Instant finishedAt, String error,
+        List<Rejection> rejections) {
+
+    /**
+     * Fila rechazada.
+     *
+     * @param row   número de fila (línea en CSV, posición en el array en JSON)
+     * @param error motivo del rechazo
+     */
+    public record Rejection(long row, String error) {
+    }
+}
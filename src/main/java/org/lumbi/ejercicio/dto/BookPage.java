@@ -0,0 +1,17 @@
+package org.lumbi.ejercicio.dto;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Página de libros obtenida por cursor.
+ *
+ * @param items      libros de la página, en el orden solicitado
+ * @param nextCursor cursor a la siguiente página o null si es la última
+ */
+public record BookPage(List<BookResponseDTO> items, BookCursor nextCursor) {
+
+    public Optional<BookCursor> next() {
+        return Optional.ofNullable(nextCursor);
+    }
+}
@@ -14,7 +14,8 @@ public class BookRequestDTO {
     @NotNull(message = "Año de publicación no debe ser nulo")
     private Integer publish_year;
 
-    @NotNull(message = "ID del usuario que agrega el libro es obligatorio")
+    // Solo se usa en lotes e importaciones (si falta, en los lotes se toma el
+    // usuario autenticado); POST /api/books siempre usa el usuario del token
     private Long addedById;
 
     public String getIsbn() {
@@ -0,0 +1,28 @@
+package org.lumbi.ejercicio.dto;
+
+import java.time.Instant;
+
+/**
+ * Vista de solo lectura de un libro. Se construye directamente desde la
+ * consulta JPQL (select new ...), así que no pasa por el contexto de
+ * persistencia ni inicializa el proxy del usuario que lo añadió.
+ *
+ * @param id              ID del libro
+ * @param isbn            ISBN tal y como se guardó
+ * @param bookName        Nombre del libro
+ * @param publishYear     Año de publicación
+ * @param addedById       ID del usuario que añadió el libro
+ * @param addedByUsername Nombre del usuario que añadió el libro
+ * @param createdAt       Fecha de creación
+ * @param updatedAt       Fecha de última modificación
+ */
+public record BookResponseDTO(
+        Long id,
+        String isbn,
+        String bookName,
+        Integer publishYear,
+        Long addedById,
+        String addedByUsername,
+        Instant createdAt,
+        Instant updatedAt) {
+}
@@ -0,0 +1,36 @@
+package org.lumbi.ejercicio.dto;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Criterios de orden admitidos por la paginación por cursor de libros.
+ * Todos desempatan por id para que el orden sea total y estable.
+ */
+public enum BookSort {
+    ID("id"),
+    CREATED_AT("created_at"),
+    BOOKNAME("bookname");
+
+    private final String param;
+
+    BookSort(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    /**
+     * Resuelve el criterio a partir del valor del parámetro de la petición.
+     *
+     * @param param valor recibido (id, created_at o bookname)
+     * @return Optional con el criterio o vacío si no es válido
+     */
+    public static Optional<BookSort> fromParam(String param) {
+        return Arrays.stream(values())
+                .filter(sort -> sort.param.equalsIgnoreCase(param))
+                .findFirst();
+    }
+}
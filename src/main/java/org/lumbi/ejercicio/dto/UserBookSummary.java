@@ -0,0 +1,11 @@
+package org.lumbi.ejercicio.dto;
+
+/**
+ * Número de libros añadidos por un usuario.
+ *
+ * @param userId    ID del usuario
+ * @param username  nombre del usuario
+ * @param bookCount número de libros
+ */
+public record UserBookSummary(Long userId, String username, long bookCount) {
+}
@@ -0,0 +1,10 @@
+package org.lumbi.ejercicio.dto;
+
+/**
+ * Datos públicos e inmutables de un usuario, sin el hash de la contraseña.
+ *
+ * @param id       ID del usuario
+ * @param username nombre del usuario
+ */
+public record UserSnapshot(Long id, String username) {
+}
@@ -0,0 +1,31 @@
+package org.lumbi.ejercicio.repository;
+
+import java.time.Instant;
+
+import org.lumbi.ejercicio.dto.BookBulkFilter;
+
+/**
+ * Operaciones masivas sobre libros. Cada método es una única sentencia UPDATE
+ * o DELETE sobre el filtro, sin cargar entidades ni IDs, así que su coste en
+ * viajes a la base de datos no depende del número de filas afectadas.
+ */
+public interface BookBulkOperations {
+
+    /**
+     * Elimina los libros que cumplen el filtro.
+     *
+     * @return número de libros eliminados
+     */
+    int deleteMatching(BookBulkFilter filter);
+
+    /**
+     * Asigna los campos no nulos a los libros que cumplen el filtro.
+     *
+     * @param publishYear nuevo año de publicación o null para no cambiarlo
+     * @param addedById   ID del nuevo propietario o null para no cambiarlo
+     * @param updatedAt   fecha de modificación (la auditoría de JPA no se
+     *                    aplica a las sentencias masivas)
+     * @return número de libros modificados
+     */
+    int updateMatching(BookBulkFilter filter, Integer publishYear, Long addedById, Instant updatedAt);
+}
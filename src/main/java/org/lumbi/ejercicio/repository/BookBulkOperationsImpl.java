@@ -0,0 +1,73 @@
+package org.lumbi.ejercicio.repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.lumbi.ejercicio.domain.BookDomain;
+import org.lumbi.ejercicio.domain.UserDomain;
+import org.lumbi.ejercicio.dto.BookBulkFilter;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Implementación con Criteria API de BookBulkOperations. Hibernate invalida
+ * la región de caché de libros y la caché de consultas tras cada sentencia
+ * masiva.
+ */
+class BookBulkOperationsImpl implements BookBulkOperations {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int deleteMatching(BookBulkFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<BookDomain> delete = cb.createCriteriaDelete(BookDomain.class);
+        Root<BookDomain> book = delete.from(BookDomain.class);
+        delete.where(matching(cb, book, filter));
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+
+    @Override
+    public int updateMatching(BookBulkFilter filter, Integer publishYear, Long addedById, Instant updatedAt) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<BookDomain> update = cb.createCriteriaUpdate(BookDomain.class);
+        Root<BookDomain> book = update.from(BookDomain.class);
+        if (publishYear != null) {
+            update.set(book.<Integer>get("publish_year"), publishYear);
+        }
+        if (addedById != null) {
+            update.set(book.<UserDomain>get("addedBy"), entityManager.getReference(UserDomain.class, addedById));
+        }
+        update.set(book.<Instant>get("updatedAt"), updatedAt);
+        update.where(matching(cb, book, filter));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private static Predicate[] matching(CriteriaBuilder cb, Root<BookDomain> book, BookBulkFilter filter) {
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("Una operación masiva necesita al menos un criterio");
+        }
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.ids() != null && !filter.ids().isEmpty()) {
+            predicates.add(book.get("id").in(filter.ids()));
+        }
+        if (filter.addedById() != null) {
+            predicates.add(cb.equal(book.get("addedBy").get("id"), filter.addedById()));
+        }
+        if (filter.publishYearFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(book.<Integer>get("publish_year"), filter.publishYearFrom()));
+        }
+        if (filter.publishYearTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(book.<Integer>get("publish_year"), filter.publishYearTo()));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+}
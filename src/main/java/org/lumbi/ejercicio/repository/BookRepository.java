@@ -1,14 +1,36 @@
 package org.lumbi.ejercicio.repository;
 
+import org.hibernate.jpa.HibernateHints;
 import org.lumbi.ejercicio.domain.BookDomain;
 import org.lumbi.ejercicio.domain.UserDomain;
+import org.lumbi.ejercicio.dto.BookCatalogVersion;
+import org.lumbi.ejercicio.dto.BookResponseDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookRepository extends JpaRepository<BookDomain, Long> {
+public interface BookRepository extends JpaRepository<BookDomain, Long>, BookBulkOperations {
+
+    // Filas que el driver JDBC trae por cada viaje al recorrer la exportación
+    int EXPORT_FETCH_SIZE = 500;
+
+    // Proyección de lectura: solo las columnas que devuelve la API, con el
+    // usuario resuelto en el mismo join
+    String VIEW_SELECT = "select new org.lumbi.ejercicio.dto.BookResponseDTO("
+            + "b.id, b.isbn, b.bookname, b.publish_year, u.id, u.username, b.createdAt, b.updatedAt) "
+            + "from BookDomain b join b.addedBy u ";
 
     // Buscar libros por ISBN (opcional)
     List<BookDomain> findByIsbnContainingIgnoreCase(String isbn);
@@ -18,4 +40,91 @@ public interface BookRepository extends JpaRepository<BookDomain, Long> {
 
     // Obtener todos los libros añadidos por un usuario
     List<BookDomain> findByAddedBy(UserDomain user);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(VIEW_SELECT + "where b.id = :id")
+    Optional<BookResponseDTO> findViewById(@Param("id") Long id);
+
+    // Búsqueda por ISBN-13 canónico (índice único ux_books_isbn13)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(VIEW_SELECT + "where b.isbn13 = :isbn13")
+    Optional<BookResponseDTO> findViewByIsbn13(@Param("isbn13") Long isbn13);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(VIEW_SELECT + "order by b.id asc")
+    List<BookResponseDTO> findAllViews();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(VIEW_SELECT + "where b.id in :ids")
+    List<BookResponseDTO> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(VIEW_SELECT + "where u.id = :userId order by b.id asc")
+    List<BookResponseDTO> findViewsByAddedById(@Param("userId") Long userId);
+
+    // Libros de varios usuarios en una sola consulta, agrupables por addedById
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(VIEW_SELECT + "where u.id in :userIds order by u.id asc, b.id asc")
+    List<BookResponseDTO> findViewsByAddedByIdIn(@Param("userIds") Collection<Long> userIds);
+
+    // ISBN ya registrados de entre los indicados (altas por lotes)
+    @Query("select b.isbn from BookDomain b where b.isbn in :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    @Query("select b.isbn13 from BookDomain b where b.isbn13 in :isbn13s")
+    List<Long> findExistingIsbn13s(@Param("isbn13s") Collection<Long> isbn13s);
+
+    // IDs que siguen existiendo de entre los indicados (tras un borrado masivo)
+    @Query("select b.id from BookDomain b where b.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Versiones para peticiones condicionales (ETag): solo leen updated_at y
+    // el número de filas, sin cargar los libros
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select b.updatedAt from BookDomain b where b.id = :id")
+    Optional<Instant> findUpdatedAtById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new org.lumbi.ejercicio.dto.BookCatalogVersion(count(b), max(b.updatedAt)) from BookDomain b")
+    BookCatalogVersion findCatalogVersion();
+
+    // Recorrido completo de vistas (p. ej. para construir el índice de búsqueda)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query(VIEW_SELECT + "order by b.id asc")
+    Stream<BookResponseDTO> streamAllViews();
+
+    // Paginación por cursor (keyset): el Pageable solo aporta el límite, nunca
+    // un offset, así que cualquier página cuesta lo mismo que la primera.
+    // Los resultados van a la caché de consultas, que Hibernate invalida en
+    // cuanto cambia la tabla books o users
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(VIEW_SELECT + "where b.id > :afterId order by b.id asc")
+    List<BookResponseDTO> findPageAfterId(@Param("afterId") Long afterId, Pageable limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(VIEW_SELECT + """
+            where b.createdAt > :createdAt or (b.createdAt = :createdAt and b.id > :afterId)
+            order by b.createdAt asc, b.id asc""")
+    List<BookResponseDTO> findPageAfterCreatedAt(@Param("createdAt") Instant createdAt,
+            @Param("afterId") Long afterId, Pageable limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(VIEW_SELECT + """
+            where b.bookname > :bookname or (b.bookname = :bookname and b.id > :afterId)
+            order by b.bookname asc, b.id asc""")
+    List<BookResponseDTO> findPageAfterBookname(@Param("bookname") String bookname, @Param("afterId") Long afterId,
+            Pageable limit);
+
+    // Recorrido completo para exportar: cursor JDBC con fetch size y entidades
+    // de solo lectura (sin snapshot de dirty-checking). No pasa por la caché de
+    // segundo nivel (IGNORE): un recorrido completo expulsaría de ella las
+    // entidades más leídas. Debe consumirse dentro de una transacción y
+    // cerrarse al terminar
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select b from BookDomain b order by b.id asc")
+    Stream<BookDomain> streamAllForExport();
 }
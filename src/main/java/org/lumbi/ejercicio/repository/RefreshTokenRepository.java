@@ -0,0 +1,29 @@
+package org.lumbi.ejercicio.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.lumbi.ejercicio.domain.RefreshTokenDomain;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenDomain, Long> {
+
+    // Buscar un refresh token por el hash de su valor
+    Optional<RefreshTokenDomain> findByTokenHash(String tokenHash);
+
+    // Consumir un refresh token: solo una de dos peticiones concurrentes con
+    // el mismo token borra la fila (devuelve 1)
+    @Modifying
+    @Query("delete from RefreshTokenDomain t where t.id = :id")
+    int consumeById(@Param("id") Long id);
+
+    // Borrar los tokens caducados con una única sentencia
+    @Modifying
+    @Query("delete from RefreshTokenDomain t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,27 @@
+package org.lumbi.ejercicio.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.lumbi.ejercicio.domain.RevokedTokenDomain;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenDomain, Long> {
+
+    // Verificar si un token ya está revocado
+    boolean existsByJti(String jti);
+
+    // Revocaciones recientes de tokens que siguen vigentes (para sincronizar
+    // la lista en memoria)
+    List<RevokedTokenDomain> findByRevokedAtGreaterThanEqualAndExpiresAtAfter(Instant revokedSince, Instant now);
+
+    // Borrar las revocaciones de tokens ya expirados con una única sentencia
+    @Modifying
+    @Query("delete from RevokedTokenDomain t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,21 +1,56 @@
 package org.lumbi.ejercicio.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.lumbi.ejercicio.domain.UserDomain;
+import org.lumbi.ejercicio.dto.UserBookSummary;
+import org.lumbi.ejercicio.dto.UserSnapshot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface UserRepository extends JpaRepository<UserDomain, Long> {
 
-    // Buscar usuario por username
+    // Buscar usuario por username (el id va a la caché de consultas y la
+    // entidad a la región users)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<UserDomain> findByUsername(String username);
 
+    // Id y username de un usuario, sin cargar la entidad ni la contraseña
+    @Query("select new org.lumbi.ejercicio.dto.UserSnapshot(u.id, u.username) from UserDomain u where u.id = :id")
+    Optional<UserSnapshot> findSnapshotById(@Param("id") Long id);
+
+    @Query("select new org.lumbi.ejercicio.dto.UserSnapshot(u.id, u.username) from UserDomain u where u.username = :username")
+    Optional<UserSnapshot> findSnapshotByUsername(@Param("username") String username);
+
     // Verificar si existe un usuario con ese username
     boolean existsByUsername(String username);
 
+    // Recorrido de todos los usernames (p. ej. para construir el filtro de
+    // Bloom de UsernameBloomFilter)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.username from UserDomain u")
+    Stream<String> streamAllUsernames();
+
     // Buscar usuarios cuyo username contenga un texto
     List<UserDomain> findByUsernameContainingIgnoreCase(String username);
+
+    // Número de libros de cada usuario con un COUNT agrupado, sin cargar la
+    // colección addedBooks (los usuarios sin libros aparecen con 0)
+    @Query("""
+            select new org.lumbi.ejercicio.dto.UserBookSummary(u.id, u.username, count(b))
+            from UserDomain u left join u.addedBooks b
+            where u.id in :userIds
+            group by u.id, u.username
+            order by u.id asc""")
+    List<UserBookSummary> summarizeBooksByIdIn(@Param("userIds") Collection<Long> userIds);
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package org.lumbi.ejercicio.security;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.lumbi.ejercicio.config.PasswordHashingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+
+/**
+ * Elige los parámetros de Argon2 para el nodo en el que arranca la
+ * aplicación.
+ *
+ * La memoria es la del presupuesto (app.security.hashing.memory), que es lo
+ * que encarece los ataques por fuerza bruta; las iteraciones se ajustan para
+ * acercarse a target-latency con la CPU disponible. Solo si las iteraciones
+ * mínimas ya superan el objetivo se reduce la memoria, hasta MIN_MEMORY_KIB,
+ * y al reducirla sube el mínimo de iteraciones según las combinaciones
+ * equivalentes de OWASP (ver minIterations): un nodo lento tarda más de
+ * target-latency antes que quedar por debajo de la recomendación. El
+ * paralelismo es siempre 1: la implementación de BouncyCastle calcula los
+ * carriles en un solo hilo, así que más carriles solo añaden coste, y la
+ * concurrencia ya la limita PasswordHasher.
+ *
+ * Como la memoria no depende del nodo, los hashes solo se rehacen en los
+ * nodos que calibran más iteraciones y no oscilan entre nodos.
+ */
+public final class Argon2Calibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(Argon2Calibrator.class);
+
+    static final int SALT_LENGTH = 16;
+    static final int HASH_LENGTH = 32;
+    static final int PARALLELISM = 1;
+    // Configuraciones equivalentes recomendadas por OWASP para Argon2id
+    // (memoria en MiB, iteraciones mínimas), de más a menos memoria
+    private static final int[][] OWASP_MINIMUMS = { { 46, 1 }, { 19, 2 }, { 12, 3 }, { 9, 4 }, { 7, 5 } };
+    static final int MIN_MEMORY_KIB = 7 * 1024;
+    static final int MIN_ITERATIONS = 2;
+    static final int MAX_ITERATIONS = 10;
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibracion-argon2";
+
+    private Argon2Calibrator() {
+    }
+
+    /**
+     * Parámetros de Argon2.
+     *
+     * @param memoryKib   memoria por hash en KiB
+     * @param iterations  número de pasadas
+     * @param parallelism número de carriles
+     */
+    public record Argon2Settings(int memoryKib, int iterations, int parallelism) {
+
+        public Argon2PasswordEncoder toEncoder() {
+            return new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, parallelism, memoryKib, iterations);
+        }
+    }
+
+    /**
+     * Calcula los parámetros según la configuración: los fijos si la
+     * calibración está desactivada o los medidos en este nodo.
+     *
+     * @param properties configuración de app.security.hashing
+     * @return parámetros elegidos
+     */
+    public static Argon2Settings resolve(PasswordHashingProperties properties) {
+        int memoryKib = (int) properties.getMemory().toKilobytes();
+        if (!properties.isCalibrate()) {
+            if (memoryKib < MIN_MEMORY_KIB || properties.getIterations() < minIterations(memoryKib)) {
+                log.warn("Argon2 con {} KiB y {} iteraciones queda por debajo del mínimo de OWASP ({} iteraciones "
+                        + "con esa memoria, al menos {} KiB)", memoryKib, properties.getIterations(),
+                        minIterations(memoryKib), MIN_MEMORY_KIB);
+            }
+            return new Argon2Settings(memoryKib, properties.getIterations(), PARALLELISM);
+        }
+        long started = System.nanoTime();
+        Argon2Settings settings = calibrate(memoryKib, properties.getTargetLatency());
+        log.info("Argon2 calibrado en {} ms: memoria {} KiB, {} iteraciones, paralelismo {}",
+                Duration.ofNanos(System.nanoTime() - started).toMillis(),
+                settings.memoryKib(), settings.iterations(), settings.parallelism());
+        return settings;
+    }
+
+    static Argon2Settings calibrate(int memoryKib, Duration targetLatency) {
+        long targetNanos = targetLatency.toNanos();
+        int memory = Math.max(MIN_MEMORY_KIB, memoryKib);
+        long perIteration = measure(new Argon2Settings(memory, 1, PARALLELISM));
+        while (perIteration * minIterations(memory) > targetNanos && memory / 2 >= MIN_MEMORY_KIB) {
+            memory /= 2;
+            perIteration = measure(new Argon2Settings(memory, 1, PARALLELISM));
+        }
+        long iterations = targetNanos / Math.max(1, perIteration);
+        return new Argon2Settings(memory,
+                Math.clamp(iterations, minIterations(memory), MAX_ITERATIONS), PARALLELISM);
+    }
+
+    /**
+     * Iteraciones mínimas para una memoria dada, según las configuraciones
+     * equivalentes de OWASP (19 MiB con 2 iteraciones, 7 MiB con 5...) y nunca
+     * menos de MIN_ITERATIONS.
+     *
+     * @param memoryKib memoria por hash en KiB
+     * @return iteraciones mínimas
+     */
+    static int minIterations(int memoryKib) {
+        for (int[] minimum : OWASP_MINIMUMS) {
+            if (memoryKib >= minimum[0] * 1024) {
+                return Math.max(MIN_ITERATIONS, minimum[1]);
+            }
+        }
+        // Por debajo de MIN_MEMORY_KIB ninguna cantidad de iteraciones es
+        // equivalente; se exige al menos la del escalón más bajo
+        return OWASP_MINIMUMS[OWASP_MINIMUMS.length - 1][1];
+    }
+
+    // Mediana de varias muestras tras una de calentamiento (JIT)
+    private static long measure(Argon2Settings settings) {
+        Argon2PasswordEncoder encoder = settings.toEncoder();
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -1,7 +1,9 @@
 package org.lumbi.ejercicio.security;
 
 import org.lumbi.ejercicio.domain.UserDomain;
+import org.lumbi.ejercicio.dto.UserSnapshot;
 import org.lumbi.ejercicio.repository.UserRepository;
+import org.lumbi.ejercicio.service.UserCache;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -15,13 +17,16 @@ import java.util.Collections;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, UserCache userCache) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
     /**
-     * Carga un usuario por su nombre de usuario para autenticación.
+     * Carga un usuario por su nombre de usuario para autenticación. Necesita
+     * el hash de la contraseña, así que no usa la caché de usuarios.
      * 
      * @param username Nombre de usuario del usuario
      * @return UserDetails los detalles del usuario para autenticación
@@ -46,14 +51,15 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
 
     /**
-     * Carga un UserDomain por su nombre de usuario.
+     * Carga los datos públicos de un usuario (sin contraseña) por su nombre de
+     * usuario, normalmente desde la caché de usuarios.
      * 
      * @param username
-     * @return UserDomain el dominio del usuario
+     * @return UserSnapshot el usuario
      * @throws UsernameNotFoundException
      */
-    public UserDomain loadUserDomainByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
+    public UserSnapshot loadUserSnapshotByUsername(String username) throws UsernameNotFoundException {
+        return userCache.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException(
                         "Usuario no encontrado: " + username));
     }
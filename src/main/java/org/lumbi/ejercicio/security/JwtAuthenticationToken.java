@@ -5,10 +5,11 @@ import java.util.Collection;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 public class JwtAuthenticationToken extends AbstractAuthenticationToken {
 
-    private final String username;
+    private final Object principal;
     private final String token;
 
     /**
@@ -19,7 +20,7 @@ public class JwtAuthenticationToken extends AbstractAuthenticationToken {
      */
     public JwtAuthenticationToken(String username, String token) {
         super(AuthorityUtils.NO_AUTHORITIES);
-        this.username = username;
+        this.principal = username;
         this.token = token;
         setAuthenticated(true);
     }
@@ -33,7 +34,20 @@ public class JwtAuthenticationToken extends AbstractAuthenticationToken {
      */
     public JwtAuthenticationToken(String username, String token, Collection<? extends GrantedAuthority> authorities) {
         super(authorities);
-        this.username = username;
+        this.principal = username;
+        this.token = token;
+        super.setAuthenticated(true);
+    }
+
+    /**
+     * Constructor para JwtAuthenticationToken con el usuario de los claims
+     * 
+     * @param principal
+     * @param token
+     */
+    public JwtAuthenticationToken(JwtPrincipal principal, String token) {
+        super(principal.roles().stream().map(role -> "ROLE_" + role).map(SimpleGrantedAuthority::new).toList());
+        this.principal = principal;
         this.token = token;
         super.setAuthenticated(true);
     }
@@ -49,12 +63,12 @@ public class JwtAuthenticationToken extends AbstractAuthenticationToken {
     }
 
     /**
-     * Obtiene el principal (nombre de usuario)
+     * Obtiene el principal (JwtPrincipal o nombre de usuario)
      * 
-     * @return Object el principal (nombre de usuario)
+     * @return Object el principal (JwtPrincipal o nombre de usuario)
      */
     @Override
     public Object getPrincipal() {
-        return username;
+        return principal;
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package org.lumbi.ejercicio.security;
+
+import java.util.List;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Usuario autenticado, construido a partir de los claims ya verificados del
+ * token JWT. Permite usar su ID sin consultar la tabla users.
+ *
+ * @param userId   ID del usuario (claim userId), o null si el token no lo
+ *                 incluye
+ * @param username nombre del usuario (subject)
+ * @param roles    roles del usuario (claim role)
+ */
+public record JwtPrincipal(Long userId, String username, List<String> roles) implements AuthenticatedPrincipal {
+
+    /**
+     * Construye el principal a partir de los claims de un token verificado.
+     *
+     * @param claims claims del token
+     * @return JwtPrincipal el usuario autenticado
+     */
+    public static JwtPrincipal fromClaims(Claims claims) {
+        Long userId = claims.get("userId") instanceof Number number ? number.longValue() : null;
+        List<String> roles = claims.get("role") instanceof String role ? List.of(role) : List.of();
+        return new JwtPrincipal(userId, claims.getSubject(), roles);
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
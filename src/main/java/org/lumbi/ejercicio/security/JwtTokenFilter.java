@@ -3,6 +3,7 @@ package org.lumbi.ejercicio.security;
 import java.io.IOException;
 import java.util.Optional;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,9 +18,11 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class JwtTokenFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationList revocationList;
 
-    public JwtTokenFilter(JwtTokenProvider jwtTokenProvider) {
+    public JwtTokenFilter(JwtTokenProvider jwtTokenProvider, TokenRevocationList revocationList) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.revocationList = revocationList;
     }
 
     @Override
@@ -40,9 +43,9 @@ public class JwtTokenFilter extends OncePerRequestFilter {
 
         final String authHeader = extractAuthorizationHeader(request);
         final String jwt = extractTokenFromHeader(authHeader);
-        final String username = extractUsernameFromToken(jwt);
+        final JwtPrincipal principal = extractPrincipalFromToken(jwt);
 
-        authenticateUserIfValid(request, jwt, username);
+        authenticateUserIfValid(request, jwt, principal);
         filterChain.doFilter(request, response);
     }
 
@@ -57,17 +60,26 @@ public class JwtTokenFilter extends OncePerRequestFilter {
                 .orElse(null);
     }
 
-    private String extractUsernameFromToken(String token) {
+    // Los claims (userId, role) ya están verificados: no hace falta cargar el usuario
+    private JwtPrincipal extractPrincipalFromToken(String token) {
         return Optional.ofNullable(token)
-                .filter(jwtTokenProvider::validateToken)
-                .map(jwtTokenProvider::getUsernameFromToken)
+                .flatMap(jwtTokenProvider::verifyToken)
+                .filter(this::isNotRevoked)
+                .filter(claims -> claims.getSubject() != null)
+                .map(JwtPrincipal::fromClaims)
                 .orElse(null);
     }
 
-    private void authenticateUserIfValid(HttpServletRequest request, String token, String username) {
-        switch (determineAuthenticationCase(token, username)) {
+    // Comprobación en memoria, sin consultar la base de datos
+    private boolean isNotRevoked(Claims claims) {
+        return claims.getExpiration() == null
+                || !revocationList.isRevoked(claims.getId(), claims.getExpiration().toInstant());
+    }
+
+    private void authenticateUserIfValid(HttpServletRequest request, String token, JwtPrincipal principal) {
+        switch (determineAuthenticationCase(token, principal)) {
             case VALID_TOKEN -> {
-                var authToken = new JwtAuthenticationToken(username, token);
+                var authToken = new JwtAuthenticationToken(principal, token);
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -77,11 +89,11 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         }
     }
 
-    private AuthenticationCase determineAuthenticationCase(String token, String username) {
+    private AuthenticationCase determineAuthenticationCase(String token, JwtPrincipal principal) {
         if (token == null) {
             return AuthenticationCase.NO_TOKEN;
         }
-        return (username != null && SecurityContextHolder.getContext().getAuthentication() == null)
+        return (principal != null && SecurityContextHolder.getContext().getAuthentication() == null)
                 ? AuthenticationCase.VALID_TOKEN
                 : AuthenticationCase.INVALID_TOKEN;
     }
@@ -1,24 +1,48 @@
 package org.lumbi.ejercicio.security;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import javax.crypto.SecretKey;
 
 import org.lumbi.ejercicio.config.JwtProperties;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Emisión y validación de tokens JWT.
+ *
+ * Los tokens ya verificados se guardan en una caché acotada, indexada por el
+ * SHA-256 del token, hasta su expiración: mientras un cliente reutiliza su
+ * token, cada petición cuesta un hash y una búsqueda en lugar de verificar la
+ * firma y parsear los claims. El parser es inmutable y se crea una sola vez.
+ */
 @Component
 public class JwtTokenProvider {
 
     private final SecretKey secretKey;
     private final long expirationMs;
     private final String tokenPrefix;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    private record VerifiedToken(Claims claims, Instant expiresAt) {
+    }
 
     /**
      * Constructor de JwtTokenProvider
@@ -40,6 +64,14 @@ public class JwtTokenProvider {
                 .toMillis();
         this.tokenPrefix = Optional.ofNullable(jwtProperties.getTokenPrefix())
                 .orElse("Bearer");
+        this.parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getTokenCacheSize())
+                .expireAfter(Expiry.creating((String digest, VerifiedToken verified) -> Duration
+                        .between(Instant.now(), verified.expiresAt())))
+                .build();
     }
 
     /**
@@ -54,6 +86,7 @@ public class JwtTokenProvider {
         Instant expiration = now.plusMillis(expirationMs);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .claims(claims)
                 .issuedAt(Date.from(now))
@@ -67,13 +100,38 @@ public class JwtTokenProvider {
      * 
      * @param token
      * @return Claims del token
+     * @throws JwtException si el token no es válido o ha expirado
      */
     public Claims parseToken(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        if (token == null) {
+            throw new IllegalArgumentException("Token JWT vacío");
+        }
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached.claims();
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        // Sin expiración no se cachea: la entrada no puede sobrevivir al token
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(digest, new VerifiedToken(claims, claims.getExpiration().toInstant()));
+        }
+        return claims;
+    }
+
+    /**
+     * Verifica un token JWT y devuelve sus claims
+     * 
+     * @param token
+     * @return Claims del token o vacío si no es válido
+     */
+    public Optional<Claims> verifyToken(String token) {
+        try {
+            return Optional.of(parseToken(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
     /**
@@ -83,12 +141,7 @@ public class JwtTokenProvider {
      * @return true si el token es válido, false en caso contrario
      */
     public boolean validateToken(String token) {
-        try {
-            parseToken(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return verifyToken(token).isPresent();
     }
 
     /**
@@ -109,4 +162,13 @@ public class JwtTokenProvider {
     public String getTokenPrefix() {
         return tokenPrefix;
     }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,176 @@
+package org.lumbi.ejercicio.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.lumbi.ejercicio.config.LoginRateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Limitador de intentos de login por nombre de usuario y por IP.
+ *
+ * Cada clave es un token bucket implementado con GCRA: el estado es un único
+ * AtomicLong (el instante teórico de la siguiente llegada) que se actualiza
+ * con CAS, sin bloqueos. Se comprueba antes de consultar la base de datos o
+ * calcular ningún hash, así que un ataque de credential stuffing no consume
+ * Argon2 más allá de la ráfaga permitida.
+ *
+ * Los fallos seguidos de un mismo usuario añaden esperas que se duplican
+ * (hasta max-penalty) y un login correcto las reinicia. Los buckets inactivos
+ * se expulsan y su número está acotado por max-tracked-keys.
+ *
+ * Métricas: login.throttled (por scope) y cache.* con name=loginLimiter.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final String USERNAME = "username";
+    private static final String IP = "ip";
+
+    private final boolean enabled;
+    private final Limit usernameLimit;
+    private final Limit ipLimit;
+    private final long maxPenaltyNanos;
+    private final Ticker ticker;
+    private final Cache<String, Bucket> buckets;
+    private final Counter throttledByUsername;
+    private final Counter throttledByIp;
+
+    private record Limit(String scope, long intervalNanos, long burstNanos) {
+
+        static Limit of(String scope, Duration interval, int burst) {
+            return new Limit(scope, interval.toNanos(), interval.toNanos() * burst);
+        }
+    }
+
+    private static final class Bucket {
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger failures = new AtomicInteger();
+    }
+
+    @Autowired
+    public LoginRateLimiter(LoginRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    LoginRateLimiter(LoginRateLimitProperties properties, MeterRegistry meterRegistry, Ticker ticker) {
+        this.enabled = properties.isEnabled();
+        this.usernameLimit = Limit.of(USERNAME, properties.getUsernameInterval(), properties.getUsernameBurst());
+        this.ipLimit = Limit.of(IP, properties.getIpInterval(), properties.getIpBurst());
+        this.maxPenaltyNanos = properties.getMaxPenalty().toNanos();
+        this.ticker = ticker;
+        // Pasado este tiempo sin intentos cualquier bucket está lleno de nuevo
+        long idleNanos = Math.max(ipLimit.burstNanos(), usernameLimit.burstNanos() + maxPenaltyNanos);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedKeys())
+                .expireAfterAccess(idleNanos, TimeUnit.NANOSECONDS)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "loginLimiter");
+        this.throttledByUsername = throttledCounter(meterRegistry, USERNAME);
+        this.throttledByIp = throttledCounter(meterRegistry, IP);
+    }
+
+    /**
+     * Consume un intento de login.
+     *
+     * @param username nombre de usuario del intento
+     * @param clientIp dirección del cliente
+     * @return vacío si se permite o el tiempo que hay que esperar
+     */
+    public Optional<Duration> tryAcquire(String username, String clientIp) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Optional<Duration> wait = acquire(ipLimit, clientIp);
+        if (wait.isPresent()) {
+            throttledByIp.increment();
+            return wait;
+        }
+        wait = acquire(usernameLimit, normalize(username));
+        if (wait.isPresent()) {
+            throttledByUsername.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Registra un login correcto: reinicia la penalización del usuario.
+     *
+     * @param username nombre de usuario
+     */
+    public void onSuccess(String username) {
+        Bucket bucket = buckets.getIfPresent(key(usernameLimit, normalize(username)));
+        if (bucket != null) {
+            bucket.failures.set(0);
+        }
+    }
+
+    /**
+     * Registra un login fallido: a partir del segundo fallo seguido el usuario
+     * espera 1, 3, 7... intervalos adicionales, como mucho max-penalty.
+     *
+     * @param username nombre de usuario
+     */
+    public void onFailure(String username) {
+        if (!enabled) {
+            return;
+        }
+        Bucket bucket = buckets.get(key(usernameLimit, normalize(username)), k -> new Bucket());
+        int failures = bucket.failures.incrementAndGet();
+        long multiplier = (1L << Math.min(failures - 1, 30)) - 1;
+        long penalty = Math.min(maxPenaltyNanos, usernameLimit.intervalNanos() * multiplier);
+        if (penalty == 0) {
+            return;
+        }
+        long now = ticker.read();
+        long limit = now + maxPenaltyNanos + usernameLimit.burstNanos();
+        bucket.theoreticalArrival.accumulateAndGet(now,
+                (arrival, current) -> Math.min(Math.max(arrival, current) + penalty, limit));
+    }
+
+    private Optional<Duration> acquire(Limit limit, String key) {
+        Bucket bucket = buckets.get(key(limit, key), k -> new Bucket());
+        long now = ticker.read();
+        while (true) {
+            long arrival = bucket.theoreticalArrival.get();
+            long next = Math.max(arrival, now) + limit.intervalNanos();
+            long allowedAt = next - limit.burstNanos();
+            if (allowedAt > now) {
+                return Optional.of(Duration.ofNanos(allowedAt - now));
+            }
+            if (bucket.theoreticalArrival.compareAndSet(arrival, next)) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private static String key(Limit limit, String value) {
+        return limit.scope() + ":" + value;
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("login.throttled")
+                .description("Intentos de login rechazados por el limitador")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+}
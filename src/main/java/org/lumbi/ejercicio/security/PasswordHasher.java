@@ -0,0 +1,146 @@
+package org.lumbi.ejercicio.security;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.lumbi.ejercicio.config.PasswordHashingProperties;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Hash y verificación de contraseñas en un ejecutor propio y acotado.
+ *
+ * Argon2 consume decenas de milisegundos y varios MB por llamada, así que no
+ * se ejecuta en los hilos de Tomcat: como mucho app.security.hashing.threads
+ * operaciones a la vez y queue-capacity en espera. Si la cola está llena, o
+ * la operación no termina en timeout, se lanza
+ * PasswordHashingUnavailableException y el cliente recibe 503 con
+ * Retry-After. Una avalancha de logins tiene así un coste de CPU y memoria
+ * acotado y no afecta a las lecturas de libros.
+ *
+ * Métricas: password.hash (latencia por operación), password.hash.queue,
+ * password.hash.active y password.hash.rejected.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Duration retryAfter;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, PasswordHashingProperties properties,
+            MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = properties.getTimeout();
+        this.retryAfter = properties.getRetryAfter();
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("password.hash")
+                .description("Tiempo de cálculo de hashes de contraseñas")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash")
+                .description("Tiempo de cálculo de hashes de contraseñas")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Operaciones rechazadas por saturación")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue", executor, pool -> pool.getQueue().size())
+                .description("Operaciones en espera")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operaciones en curso")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Calcula el hash de una contraseña.
+     *
+     * @param rawPassword contraseña en claro
+     * @return hash codificado
+     * @throws PasswordHashingUnavailableException si el ejecutor está saturado
+     */
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Comprueba una contraseña contra su hash.
+     *
+     * @param rawPassword     contraseña en claro
+     * @param encodedPassword hash guardado
+     * @return true si coinciden
+     * @throws PasswordHashingUnavailableException si el ejecutor está saturado
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Indica si un hash se calculó con parámetros más débiles que los
+     * actuales y debe rehacerse. No calcula ningún hash, así que no pasa por
+     * el ejecutor.
+     *
+     * @param encodedPassword hash guardado
+     * @return true si hay que volver a calcularlo
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Timer timer, Callable<T> operation) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(operation));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingUnavailableException("Demasiadas operaciones de contraseña en curso", retryAfter);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingUnavailableException("La operación de contraseña ha tardado demasiado", retryAfter);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Operación de contraseña interrumpida", retryAfter);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Error al calcular el hash de la contraseña", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
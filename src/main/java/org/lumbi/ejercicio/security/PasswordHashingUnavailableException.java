@@ -0,0 +1,21 @@
+package org.lumbi.ejercicio.security;
+
+import java.time.Duration;
+
+/**
+ * El ejecutor de PasswordHasher está saturado: la operación se rechaza sin
+ * esperar para que el cliente lo reintente pasado retryAfter.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public PasswordHashingUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,97 @@
+package org.lumbi.ejercicio.security;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.lumbi.ejercicio.config.JwtProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tokens JWT revocados (por su claim jti) que todavía no han expirado.
+ *
+ * Los jti se agrupan en cubos por el minuto en que expira el token: la
+ * comprobación mira un único cubo (O(1)) y, en cuanto pasa ese minuto, el
+ * cubo entero se descarta porque sus tokens ya no serían válidos de todos
+ * modos. El número de entradas está acotado por revocation-max-entries.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final long BUCKET_SECONDS = 60;
+
+    private final Map<Long, Set<String>> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxEntries;
+
+    public TokenRevocationList(JwtProperties jwtProperties) {
+        this.maxEntries = jwtProperties.getRevocationMaxEntries();
+    }
+
+    /**
+     * Revoca un token.
+     *
+     * @param jti       identificador del token
+     * @param expiresAt expiración del token
+     * @return false si la lista está llena y no se ha podido revocar
+     */
+    public boolean revoke(String jti, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return true;
+        }
+        if (size.get() >= maxEntries) {
+            purgeExpired();
+            if (size.get() >= maxEntries) {
+                return false;
+            }
+        }
+        if (buckets.computeIfAbsent(bucketOf(expiresAt), k -> ConcurrentHashMap.newKeySet()).add(jti)) {
+            size.incrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Indica si un token está revocado.
+     *
+     * @param jti       identificador del token
+     * @param expiresAt expiración del token
+     * @return true si está revocado
+     */
+    public boolean isRevoked(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null) {
+            return false;
+        }
+        Set<String> bucket = buckets.get(bucketOf(expiresAt));
+        return bucket != null && bucket.contains(jti);
+    }
+
+    /**
+     * Descarta los cubos cuyos tokens ya han expirado.
+     */
+    public void purgeExpired() {
+        long current = bucketOf(Instant.now());
+        buckets.entrySet().removeIf(entry -> {
+            if (entry.getKey() < current) {
+                size.addAndGet(-entry.getValue().size());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Número de tokens revocados que se conservan.
+     *
+     * @return número de entradas
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private static long bucketOf(Instant expiresAt) {
+        return Math.floorDiv(expiresAt.getEpochSecond(), BUCKET_SECONDS);
+    }
+}
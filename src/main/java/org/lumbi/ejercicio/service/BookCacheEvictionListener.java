@@ -0,0 +1,41 @@
+package org.lumbi.ejercicio.service;
+
+import org.lumbi.ejercicio.domain.BookDomain;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Expulsa de la caché de segundo nivel los libros modificados o eliminados.
+ *
+ * Hibernate ya actualiza la región en las escrituras hechas con entidades;
+ * este listener cubre también las que no pasan por el contexto de
+ * persistencia, para que ninguna lectura sirva un libro obsoleto.
+ */
+@Component
+public class BookCacheEvictionListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public BookCacheEvictionListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Expulsa los libros del evento una vez confirmada la transacción (toda
+     * la región si el cambio fue masivo).
+     *
+     * @param event Libros afectados
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        Cache cache = entityManagerFactory.getCache();
+        if (event.bulk()) {
+            cache.evict(BookDomain.class);
+            return;
+        }
+        event.bookIds().forEach(id -> cache.evict(BookDomain.class, id));
+    }
+}
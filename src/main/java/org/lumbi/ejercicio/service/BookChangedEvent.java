@@ -0,0 +1,93 @@
+package org.lumbi.ejercicio.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Evento publicado por BookService cuando cambian libros. Los componentes
+ * que mantienen datos derivados (índices, cachés) lo escuchan tras el commit
+ * para actualizarse de forma incremental.
+ *
+ * @param bookIds IDs de los libros afectados (vacío en los cambios masivos)
+ * @param isbn13s ISBN-13 que tenían o tienen los libros ya existentes antes
+ *                del cambio, para invalidar IsbnLookupCache sin recorrerla.
+ *                Los libros nuevos no necesitan ninguno: no pueden estar en
+ *                caché
+ * @param type    tipo de cambio
+ * @param bulk    true si el cambio viene de una sentencia masiva que no
+ *                enumera los libros afectados: los oyentes deben invalidar
+ *                todo lo que dependa de libros de ese tipo de cambio
+ */
+public record BookChangedEvent(List<Long> bookIds, List<Long> isbn13s, ChangeType type, boolean bulk) {
+
+    /**
+     * Máximo de IDs por evento (y por lista IN de las consultas que hacen los
+     * oyentes). Los cambios más grandes se publican en varios eventos.
+     */
+    public static final int MAX_IDS = 500;
+
+    /**
+     * SAVED: libros creados o modificados. UPDATED: modificados sin cambiar
+     * nombre ni ISBN (el índice de búsqueda no necesita releerlos).
+     * DELETED: libros eliminados.
+     */
+    public enum ChangeType {
+        SAVED, UPDATED, DELETED
+    }
+
+    /**
+     * Libros nuevos (altas por lotes), que aún no pueden estar en caché.
+     */
+    public static BookChangedEvent saved(Collection<Long> bookIds) {
+        return new BookChangedEvent(List.copyOf(bookIds), List.of(), ChangeType.SAVED, false);
+    }
+
+    /**
+     * Libro creado o modificado.
+     *
+     * @param isbn13s ISBN-13 anterior y nuevo del libro (se ignoran los null)
+     */
+    public static BookChangedEvent saved(Long bookId, Long... isbn13s) {
+        return new BookChangedEvent(List.of(bookId), isbn13s(isbn13s), ChangeType.SAVED, false);
+    }
+
+    /**
+     * Libro eliminado.
+     *
+     * @param isbn13s ISBN-13 del libro (se ignoran los null)
+     */
+    public static BookChangedEvent deleted(Long bookId, Long... isbn13s) {
+        return new BookChangedEvent(List.of(bookId), isbn13s(isbn13s), ChangeType.DELETED, false);
+    }
+
+    /**
+     * Cambio hecho con una sentencia masiva (UPDATE o DELETE sobre un filtro)
+     * cuyos libros no se conocen.
+     *
+     * @param type UPDATED o DELETED
+     */
+    public static BookChangedEvent bulk(ChangeType type) {
+        return new BookChangedEvent(List.of(), List.of(), type, true);
+    }
+
+    private static List<Long> isbn13s(Long... isbn13s) {
+        return Stream.of(isbn13s).filter(Objects::nonNull).distinct().toList();
+    }
+
+    /**
+     * Divide una lista de IDs en lotes de como mucho MAX_IDS.
+     *
+     * @param ids IDs
+     * @return vistas de la lista original, en orden
+     */
+    public static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + MAX_IDS)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,69 @@
+package org.lumbi.ejercicio.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.lumbi.ejercicio.domain.BookDomain;
+import org.lumbi.ejercicio.repository.BookRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+
+@Service
+public class BookExportService {
+
+    static final int CHUNK_SIZE = BookRepository.EXPORT_FETCH_SIZE;
+
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public BookExportService(BookRepository bookRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.bookRepository = bookRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Escribe el catálogo completo como NDJSON (un libro por línea). Los libros
+     * se leen con un cursor y, cada CHUNK_SIZE filas, se vuelca la salida y se
+     * vacía el contexto de persistencia, de modo que la memoria usada no
+     * depende del número de libros exportados.
+     *
+     * @param out Stream de salida de la respuesta (no se cierra)
+     * @return Número de libros exportados
+     * @throws IOException si falla la escritura
+     */
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(BookDomain.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long exported = 0;
+
+        try (Stream<BookDomain> books = bookRepository.streamAllForExport();
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<BookDomain> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++exported % CHUNK_SIZE == 0) {
+                    generator.flush();
+                    entityManager.clear();
+                }
+            }
+            generator.flush();
+        }
+        return exported;
+    }
+}
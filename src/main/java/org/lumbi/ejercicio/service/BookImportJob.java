@@ -0,0 +1,128 @@
+package org.lumbi.ejercicio.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.lumbi.ejercicio.dto.BookImportStatus;
+
+/**
+ * Trabajo de importación en curso. Lo actualiza un único hilo del ejecutor y
+ * lo consultan los hilos de las peticiones de estado.
+ */
+class BookImportJob {
+
+    // Se guardan las primeras filas rechazadas; el resto solo se cuentan
+    static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    enum Format {
+        CSV, JSON;
+
+        /**
+         * Deduce el formato del tipo de contenido o de la extensión del fichero.
+         *
+         * @param contentType tipo de contenido declarado
+         * @param filename    nombre original del fichero
+         * @return formato o vacío si no es CSV ni JSON
+         */
+        static Optional<Format> detect(String contentType, String filename) {
+            String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+            String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+            if (type.startsWith("text/csv") || name.endsWith(".csv")) {
+                return Optional.of(CSV);
+            }
+            if (type.startsWith("application/json") || name.endsWith(".json")) {
+                return Optional.of(JSON);
+            }
+            return Optional.empty();
+        }
+    }
+
+    private final UUID id = UUID.randomUUID();
+    private final Format format;
+    private final Instant submittedAt = Instant.now();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<BookImportStatus.Rejection> rejections = new ArrayList<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    BookImportJob(Format format) {
+        this.format = format;
+    }
+
+    UUID id() {
+        return id;
+    }
+
+    Format format() {
+        return format;
+    }
+
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    Instant finishedAt() {
+        return finishedAt;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String message) {
+        error = message;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    void created(long count) {
+        created.addAndGet(count);
+    }
+
+    void processed(long count) {
+        processed.addAndGet(count);
+    }
+
+    void reject(long row, String message) {
+        rejected.incrementAndGet();
+        synchronized (rejections) {
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(new BookImportStatus.Rejection(row, message));
+            }
+        }
+    }
+
+    BookImportStatus snapshot() {
+        Instant start = startedAt;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long rows = processed.get();
+        double seconds = start == null ? 0 : Duration.between(start, end).toMillis() / 1000.0;
+        double rowsPerSecond = seconds > 0 ? rows / seconds : 0;
+        List<BookImportStatus.Rejection> reported;
+        synchronized (rejections) {
+            reported = List.copyOf(rejections);
+        }
+        return new BookImportStatus(id, format.name(), status.name(), rows, created.get(), rejected.get(),
+                rowsPerSecond, submittedAt, start, finishedAt, error, reported);
+    }
+}
@@ -0,0 +1,343 @@
+package org.lumbi.ejercicio.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.lumbi.ejercicio.config.BookProperties;
+import org.lumbi.ejercicio.dto.BookBatchResult;
+import org.lumbi.ejercicio.dto.BookImportStatus;
+import org.lumbi.ejercicio.dto.BookRequestDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Importación asíncrona de libros desde ficheros CSV o JSON.
+ *
+ * El fichero se mueve a disco y un hilo del ejecutor lo lee en streaming
+ * (línea a línea o con el parser de Jackson), de modo que nunca está entero en
+ * memoria. Las filas se guardan en bloques de app.books.import-chunk-size con
+ * BookService.saveBooks, una transacción por bloque, así que un fallo solo
+ * afecta a las filas del bloque en curso. Los libros se asocian al usuario
+ * que sube el fichero; las filas con el addedById de otro usuario se rechazan.
+ *
+ * El ejecutor tiene import-concurrency hilos y como mucho
+ * import-queue-capacity trabajos en espera. Con la cola llena submit lanza
+ * BookImportUnavailableException (503 con Retry-After) en lugar de acumular
+ * trabajos y ficheros temporales sin límite.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportService.class);
+
+    // Los trabajos terminados se pueden consultar durante este tiempo
+    static final Duration JOB_RETENTION = Duration.ofHours(1);
+
+    private static final List<String> CSV_COLUMNS = List.of("isbn", "bookname", "publish_year", "addedbyid");
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final BookProperties bookProperties;
+    private final Executor executor;
+    private final Map<UUID, BookImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookImportService(BookService bookService, ObjectMapper objectMapper, BookProperties bookProperties) {
+        this(bookService, objectMapper, bookProperties, new ThreadPoolExecutor(
+                bookProperties.getImportConcurrency(), bookProperties.getImportConcurrency(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(bookProperties.getImportQueueCapacity()),
+                new CustomizableThreadFactory("book-import-"), new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    BookImportService(BookService bookService, ObjectMapper objectMapper, BookProperties bookProperties,
+            Executor executor) {
+        this.bookService = bookService;
+        this.objectMapper = objectMapper;
+        this.bookProperties = bookProperties;
+        this.executor = executor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    /**
+     * Crea un trabajo de importación para un fichero subido.
+     *
+     * @param upload  fichero subido
+     * @param ownerId ID del usuario autenticado, propietario de los libros
+     * @return Estado inicial del trabajo o vacío si el fichero no es CSV ni JSON
+     * @throws IOException                    si no se puede guardar el fichero
+     * @throws BookImportUnavailableException si la cola de importaciones está
+     *                                        llena
+     */
+    public Optional<BookImportStatus> submit(MultipartFile upload, Long ownerId) throws IOException {
+        Optional<BookImportJob.Format> format = BookImportJob.Format.detect(upload.getContentType(),
+                upload.getOriginalFilename());
+        if (format.isEmpty()) {
+            return Optional.empty();
+        }
+        purgeFinishedJobs();
+
+        BookImportJob job = new BookImportJob(format.get());
+        Path file = Files.createTempFile("book-import-" + job.id(), "." + format.get().name().toLowerCase(Locale.ROOT));
+        try {
+            // Si el contenedor ya guardó la subida en disco basta con moverla
+            upload.transferTo(file.toFile());
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        jobs.put(job.id(), job);
+        try {
+            executor.execute(() -> run(job, file, ownerId));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id());
+            Files.deleteIfExists(file);
+            throw new BookImportUnavailableException("Demasiadas importaciones en curso",
+                    bookProperties.getImportRetryAfter());
+        }
+        return Optional.of(job.snapshot());
+    }
+
+    /**
+     * Estado de un trabajo de importación.
+     *
+     * @param id ID del trabajo
+     * @return Optional con el estado o vacío si no existe (o ya se purgó)
+     */
+    public Optional<BookImportStatus> getStatus(UUID id) {
+        return Optional.ofNullable(jobs.get(id)).map(BookImportJob::snapshot);
+    }
+
+    void run(BookImportJob job, Path file, Long ownerId) {
+        job.start();
+        ChunkWriter writer = new ChunkWriter(job, Math.max(1, bookProperties.getImportChunkSize()), ownerId);
+        try (InputStream in = Files.newInputStream(file)) {
+            switch (job.format()) {
+                case CSV -> readCsv(in, writer);
+                case JSON -> readJson(in, writer);
+            }
+            writer.flush();
+            job.complete();
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            writer.flush();
+            job.fail(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Error en la importación {}", job.id(), e);
+            job.fail("Error inesperado: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("No se pudo borrar el fichero temporal {}", file, e);
+            }
+        }
+        log.info("Importación {} terminada: {}", job.id(), job.snapshot().status());
+    }
+
+    private void readCsv(InputStream in, ChunkWriter writer) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> names = splitCsvLine(header).stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+        int[] positions = CSV_COLUMNS.stream().mapToInt(names::indexOf).toArray();
+        for (int position : positions) {
+            if (position < 0) {
+                throw new IllegalArgumentException("La cabecera CSV debe incluir las columnas " + CSV_COLUMNS);
+            }
+        }
+
+        String line;
+        long row = 1;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = splitCsvLine(line);
+            if (fields.size() < names.size()) {
+                writer.reject(row, "Faltan columnas");
+                continue;
+            }
+            BookRequestDTO book = new BookRequestDTO();
+            book.setIsbn(fields.get(positions[0]).trim());
+            book.setBookname(fields.get(positions[1]).trim());
+            try {
+                String year = fields.get(positions[2]).trim();
+                String owner = fields.get(positions[3]).trim();
+                book.setPublish_year(year.isEmpty() ? null : Integer.valueOf(year));
+                book.setAddedById(owner.isEmpty() ? null : Long.valueOf(owner));
+            } catch (NumberFormatException e) {
+                writer.reject(row, "Año de publicación o ID de usuario no numérico");
+                continue;
+            }
+            writer.add(row, book);
+        }
+    }
+
+    private void readJson(InputStream in, ChunkWriter writer) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Se esperaba un array JSON de libros");
+            }
+            long row = 0;
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    throw new IllegalArgumentException("El array JSON está incompleto");
+                }
+                row++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    writer.reject(row, "Se esperaba un objeto JSON");
+                    continue;
+                }
+                // Cada elemento se lee como árbol (solo ese libro en memoria) para
+                // que un campo mal tipado no deje el parser a mitad de objeto
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    writer.add(row, objectMapper.treeToValue(node, BookRequestDTO.class));
+                } catch (JsonProcessingException e) {
+                    writer.reject(row, "Libro JSON no válido: " + e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Divide una línea CSV (RFC 4180) respetando los campos entre comillas.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void purgeFinishedJobs() {
+        Instant limit = Instant.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt().isBefore(limit));
+    }
+
+    /**
+     * Acumula filas válidas y las guarda en bloques con BookService.saveBooks.
+     */
+    private class ChunkWriter {
+        private final BookImportJob job;
+        private final int chunkSize;
+        private final Long ownerId;
+        private final List<Long> rows = new ArrayList<>();
+        private final List<BookRequestDTO> books = new ArrayList<>();
+
+        ChunkWriter(BookImportJob job, int chunkSize, Long ownerId) {
+            this.job = job;
+            this.chunkSize = chunkSize;
+            this.ownerId = ownerId;
+        }
+
+        void add(long row, BookRequestDTO book) {
+            if (book.getAddedById() != null && !book.getAddedById().equals(ownerId)) {
+                reject(row, "addedById debe ser el usuario autenticado");
+                return;
+            }
+            book.setAddedById(ownerId);
+            rows.add(row);
+            books.add(book);
+            if (books.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            job.processed(1);
+            job.reject(row, message);
+        }
+
+        void flush() {
+            if (books.isEmpty()) {
+                return;
+            }
+            try {
+                List<BookBatchResult> results = bookService.saveBooks(books);
+                for (BookBatchResult result : results) {
+                    if (result.isCreated()) {
+                        job.created(1);
+                    } else {
+                        job.reject(rows.get(result.index()), result.status() + ": " + result.error());
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Normalmente un ISBN insertado a la vez por otra petición: se
+                // descarta el bloque y se continúa con el siguiente
+                log.warn("Bloque de importación {} descartado", job.id(), e);
+                rows.forEach(row -> job.reject(row, "Bloque descartado: " + e.getMessage()));
+            }
+            job.processed(books.size());
+            rows.clear();
+            books.clear();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.lumbi.ejercicio.service;
+
+import java.time.Duration;
+
+/**
+ * La cola de importaciones está llena: el trabajo se rechaza sin guardarlo
+ * para que el cliente lo reintente pasado retryAfter.
+ */
+public class BookImportUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public BookImportUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,274 @@
+package org.lumbi.ejercicio.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.lumbi.ejercicio.config.BookProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché de respuestas de libros ya codificadas. Guarda el cuerpo en bytes
+ * (y comprimido con gzip si compensa) por recurso y representación (JSON,
+ * CBOR o Smile), de modo que las lecturas más frecuentes se copian tal cual
+ * a la respuesta sin pasar por Jackson.
+ *
+ * Cada entrada lleva el ETag con el que se generó y solo se sirve si
+ * coincide con el actual. Los ETags son débiles (W/"..."): el mismo recurso
+ * se sirve en JSON, CBOR o Smile, con o sin gzip, y todas esas variantes
+ * comparten ETag. Además, los BookChangedEvent eliminan las entradas
+ * de los libros afectados y todas las listas; un contador de generación
+ * evita guardar un resultado leído antes de una invalidación.
+ */
+@Component
+public class BookResponseCache {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    public static final List<MediaType> REPRESENTATIONS = List.of(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    /** Por debajo de este tamaño gzip no reduce lo suficiente para compensar */
+    static final int GZIP_MIN_BYTES = 1024;
+
+    private final Map<MediaType, ObjectMapper> mappers;
+    private final Cache<ResponseKey, CachedResponse> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public BookResponseCache(ObjectMapper objectMapper, MappingJackson2CborHttpMessageConverter cborConverter,
+            MappingJackson2SmileHttpMessageConverter smileConverter, BookProperties bookProperties,
+            MeterRegistry meterRegistry) {
+        this.mappers = Map.of(
+                MediaType.APPLICATION_JSON, objectMapper,
+                MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper(),
+                APPLICATION_SMILE, smileConverter.getObjectMapper());
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(bookProperties.getResponseCacheSize().toBytes())
+                .weigher((ResponseKey key, CachedResponse response) -> response.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "bookResponses");
+    }
+
+    /**
+     * Clave de una respuesta: un libro (bookId) o una lista (resource) en una
+     * representación concreta.
+     *
+     * @param bookId         ID del libro, o null si es una lista
+     * @param resource       identificador de la lista, o null si es un libro
+     * @param representation tipo de contenido de la respuesta
+     */
+    public record ResponseKey(Long bookId, String resource, MediaType representation) {
+
+        public static ResponseKey forBook(Long bookId, MediaType representation) {
+            return new ResponseKey(bookId, null, representation);
+        }
+
+        public static ResponseKey forList(String resource, MediaType representation) {
+            return new ResponseKey(null, resource, representation);
+        }
+
+        boolean isList() {
+            return bookId == null;
+        }
+    }
+
+    /**
+     * Respuesta codificada.
+     *
+     * @param etag    ETag del contenido
+     * @param headers cabeceras de la representación (Content-Type, ETag...)
+     * @param body    cuerpo sin comprimir
+     * @param gzipped cuerpo comprimido con gzip, o null si no compensa
+     */
+    public record CachedResponse(String etag, HttpHeaders headers, byte[] body, byte[] gzipped) {
+
+        /**
+         * Construye la respuesta 200 con el cuerpo ya codificado.
+         *
+         * @param acceptEncoding cabecera Accept-Encoding de la petición
+         * @return respuesta con el cuerpo comprimido si el cliente admite gzip
+         */
+        public ResponseEntity<byte[]> toResponse(String acceptEncoding) {
+            HttpHeaders responseHeaders = new HttpHeaders();
+            responseHeaders.putAll(headers);
+            responseHeaders.setVary(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+            if (gzipped != null && acceptsGzip(acceptEncoding)) {
+                responseHeaders.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                return ResponseEntity.ok().headers(responseHeaders).body(gzipped);
+            }
+            return ResponseEntity.ok().headers(responseHeaders).body(body);
+        }
+
+        int weight() {
+            return body.length + (gzipped == null ? 0 : gzipped.length);
+        }
+    }
+
+    /**
+     * Elige la representación según la cabecera Accept.
+     *
+     * @param accept cabecera Accept de la petición (puede ser null)
+     * @return representación admitida por el cliente, o vacío si no acepta
+     *         ninguna de las que se cachean
+     */
+    public Optional<MediaType> negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Optional.of(MediaType.APPLICATION_JSON);
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return Optional.empty();
+        }
+        return accepted.stream()
+                .filter(type -> type.getQualityValue() > 0)
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .flatMap(type -> REPRESENTATIONS.stream().filter(type::includes))
+                .findFirst();
+    }
+
+    /**
+     * Busca una respuesta vigente.
+     *
+     * @param key  recurso y representación
+     * @param etag ETag actual del recurso
+     * @return Optional con la respuesta o vacío si no está o está obsoleta
+     */
+    public Optional<CachedResponse> get(ResponseKey key, String etag) {
+        if (etag == null) {
+            return Optional.empty();
+        }
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (!cached.etag().equals(etag)) {
+            cache.asMap().remove(key, cached);
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    /**
+     * Generación actual. Se lee antes de consultar la base de datos y se pasa a
+     * put para descartar resultados que una invalidación haya dejado obsoletos.
+     *
+     * @return generación actual
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Codifica una respuesta y la guarda si no ha habido invalidaciones desde
+     * que se leyó.
+     *
+     * @param key            recurso y representación
+     * @param etag           ETag del contenido
+     * @param headers        cabeceras propias del recurso (Last-Modified,
+     *                       paginación...)
+     * @param body           objeto a serializar
+     * @param readGeneration generación leída antes de la consulta
+     * @return respuesta codificada, guardada o no
+     */
+    public CachedResponse put(ResponseKey key, String etag, HttpHeaders headers, Object body, long readGeneration) {
+        byte[] encoded = encode(key.representation(), body);
+        HttpHeaders representationHeaders = new HttpHeaders();
+        representationHeaders.putAll(headers);
+        representationHeaders.setContentType(key.representation());
+        representationHeaders.setETag(etag);
+        CachedResponse response = new CachedResponse(etag, HttpHeaders.readOnlyHttpHeaders(representationHeaders),
+                encoded, gzip(encoded));
+        if (generation.get() == readGeneration) {
+            cache.put(key, response);
+        }
+        return response;
+    }
+
+    /**
+     * Elimina las respuestas de los libros modificados o eliminados y todas
+     * las listas, que pueden incluirlos. Se ejecuta después de que
+     * BookSearchIndex haya aplicado el cambio.
+     *
+     * @param event Libros afectados
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onBookChanged(BookChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.bulk()) {
+            cache.invalidateAll();
+            return;
+        }
+        for (Long bookId : event.bookIds()) {
+            for (MediaType representation : REPRESENTATIONS) {
+                cache.invalidate(ResponseKey.forBook(bookId, representation));
+            }
+        }
+        cache.asMap().keySet().removeIf(ResponseKey::isList);
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?");
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] encode(MediaType representation, Object body) {
+        try {
+            return mappers.get(representation).writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se ha podido serializar la respuesta", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        if (body.length < GZIP_MIN_BYTES) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] compressed = out.toByteArray();
+        return compressed.length < body.length ? compressed : null;
+    }
+}
@@ -0,0 +1,368 @@
+package org.lumbi.ejercicio.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.lumbi.ejercicio.dto.BookResponseDTO;
+import org.lumbi.ejercicio.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Índice invertido en memoria de trigramas sobre el nombre y el ISBN de los
+ * libros. Las búsquedas intersectan las listas de IDs de cada trigrama de la
+ * consulta empezando por la más corta, así que su coste depende del número de
+ * coincidencias y no del tamaño de la tabla.
+ *
+ * Cada lista es un long[] ordenado (8 bytes por ID) que no se modifica nunca:
+ * los cambios la sustituyen por una copia, de modo que las búsquedas la leen
+ * sin bloqueos y la intersectan con búsqueda binaria.
+ *
+ * Se construye al arrancar la aplicación y se actualiza con los
+ * BookChangedEvent que publica BookService.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    private static final int GRAM = 3;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+    private final BookRepository bookRepository;
+    private final Map<String, long[]> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public BookSearchIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Documento indexado: textos normalizados del libro.
+     */
+    record Entry(long id, String name, String isbn) {
+    }
+
+    /**
+     * Reconstruye el índice completo desde la base de datos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        // Se acumulan las listas completas antes de publicarlas: insertar libro
+        // a libro copiaría cada lista una vez por ID
+        Map<String, LongList> building = new HashMap<>();
+        Map<Long, Entry> built = new HashMap<>();
+        try (Stream<BookResponseDTO> books = bookRepository.streamAllViews()) {
+            books.forEach(book -> {
+                Entry entry = entry(book.id(), book.bookName(), book.isbn());
+                built.put(entry.id(), entry);
+                documentGrams(entry).forEach(gram -> building.computeIfAbsent(gram, key -> new LongList()).add(entry.id()));
+            });
+        }
+        postings.clear();
+        entries.clear();
+        building.forEach((gram, ids) -> postings.put(gram, ids.toSortedArray()));
+        entries.putAll(built);
+        log.info("Índice de búsqueda de libros construido: {} libros, {} trigramas", entries.size(), postings.size());
+    }
+
+    /**
+     * Aplica al índice los cambios confirmados en base de datos. Se ejecuta
+     * antes que BookResponseCache: si la caché cambiara de generación primero,
+     * una búsqueda concurrente podría guardar en la generación nueva un
+     * resultado del índice todavía sin actualizar.
+     *
+     * @param event Libros guardados o eliminados
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onBookChanged(BookChangedEvent event) {
+        switch (event.type()) {
+            case DELETED -> {
+                if (event.bulk()) {
+                    removeMissing();
+                } else {
+                    event.bookIds().forEach(this::remove);
+                }
+            }
+            case SAVED -> BookChangedEvent.chunks(event.bookIds())
+                    .forEach(chunk -> bookRepository.findViewsByIdIn(chunk)
+                            .forEach(book -> put(book.id(), book.bookName(), book.isbn())));
+            // Ni el nombre ni el ISBN han cambiado
+            case UPDATED -> {
+            }
+        }
+    }
+
+    // Un borrado masivo no enumera los libros: se comprueba por lotes cuáles
+    // de los indexados siguen existiendo
+    private void removeMissing() {
+        List<Long> indexed = new ArrayList<>(entries.keySet());
+        for (List<Long> chunk : BookChangedEvent.chunks(indexed)) {
+            Set<Long> existing = new HashSet<>(bookRepository.findExistingIds(chunk));
+            chunk.stream().filter(id -> !existing.contains(id)).forEach(this::remove);
+        }
+    }
+
+    /**
+     * Indexa (o reindexa) un libro. Las listas se actualizan dentro del
+     * compute de su entrada, así que dos cambios del mismo libro no pueden
+     * intercalarse; solo se tocan los trigramas que entran o salen.
+     *
+     * @param id       ID del libro
+     * @param bookname Nombre del libro
+     * @param isbn     ISBN del libro
+     */
+    public void put(long id, String bookname, String isbn) {
+        Entry entry = entry(id, bookname, isbn);
+        entries.compute(id, (key, previous) -> {
+            Set<String> grams = documentGrams(entry);
+            if (previous != null) {
+                Set<String> previousGrams = documentGrams(previous);
+                previousGrams.stream().filter(gram -> !grams.contains(gram)).forEach(gram -> unlink(gram, id));
+                grams.removeAll(previousGrams);
+            }
+            grams.forEach(gram -> postings.compute(gram, (g, ids) -> with(ids, id)));
+            return entry;
+        });
+    }
+
+    /**
+     * Elimina un libro del índice.
+     *
+     * @param id ID del libro
+     */
+    public void remove(long id) {
+        entries.computeIfPresent(id, (key, previous) -> {
+            documentGrams(previous).forEach(gram -> unlink(gram, id));
+            return null;
+        });
+    }
+
+    /**
+     * Busca libros cuyo nombre o ISBN contengan todos los términos de la
+     * consulta y los devuelve ordenados por relevancia.
+     *
+     * @param query Texto buscado
+     * @param limit Número máximo de resultados
+     * @return IDs de los libros encontrados, del más al menos relevante
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = tokenize(normalize(query)).stream()
+                .filter(term -> term.length() > 1)
+                .toList();
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        List<long[]> lists = new ArrayList<>();
+        for (String gram : queryGrams(terms)) {
+            long[] ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(ids -> ids.length));
+
+        String normalizedQuery = String.join(" ", terms);
+        List<Scored> matches = new ArrayList<>();
+        for (long id : lists.get(0)) {
+            if (!containedInAll(id, lists)) {
+                continue;
+            }
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                continue;
+            }
+            int score = score(entry, terms, normalizedQuery);
+            if (score > 0) {
+                matches.add(new Scored(entry, score));
+            }
+        }
+
+        return matches.stream()
+                .sorted(Comparator.comparingInt(Scored::score).reversed()
+                        .thenComparingInt(scored -> scored.entry().name().length())
+                        .thenComparingLong(scored -> scored.entry().id()))
+                .limit(limit)
+                .map(scored -> scored.entry().id())
+                .toList();
+    }
+
+    /**
+     * Número de libros indexados.
+     *
+     * @return tamaño del índice
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private record Scored(Entry entry, int score) {
+    }
+
+    private static boolean containedInAll(long id, List<long[]> lists) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (Arrays.binarySearch(lists.get(i), id) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Cada término debe aparecer en el nombre o en el ISBN; los términos de dos
+    // caracteres solo cuentan como prefijo de palabra
+    private int score(Entry entry, List<String> terms, String normalizedQuery) {
+        String paddedName = " " + entry.name();
+        String paddedIsbn = " " + entry.isbn();
+        int score = 0;
+        for (String term : terms) {
+            boolean prefixInName = paddedName.contains(" " + term);
+            boolean prefixInIsbn = paddedIsbn.contains(" " + term);
+            boolean inName = term.length() >= GRAM ? entry.name().contains(term) : prefixInName;
+            boolean inIsbn = term.length() >= GRAM ? entry.isbn().contains(term) : prefixInIsbn;
+            if (!inName && !inIsbn) {
+                return 0;
+            }
+            score += inName ? 2 : 0;
+            score += prefixInName ? 1 : 0;
+            score += inIsbn ? 3 : 0;
+        }
+        if (entry.name().equals(normalizedQuery) || entry.isbn().equals(normalizedQuery)) {
+            score += 10;
+        }
+        return score;
+    }
+
+    private void unlink(String gram, long id) {
+        postings.computeIfPresent(gram, (key, ids) -> without(ids, id));
+    }
+
+    private static Entry entry(long id, String bookname, String isbn) {
+        return new Entry(id, normalize(bookname), normalize(isbn));
+    }
+
+    // Copia de la lista con el ID insertado en orden
+    private static long[] with(long[] ids, long id) {
+        if (ids == null) {
+            return new long[] { id };
+        }
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        int insertion = -position - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, insertion);
+        copy[insertion] = id;
+        System.arraycopy(ids, insertion, copy, insertion + 1, ids.length - insertion);
+        return copy;
+    }
+
+    // Copia de la lista sin el ID, o null si queda vacía
+    private static long[] without(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, position);
+        System.arraycopy(ids, position + 1, copy, position, ids.length - position - 1);
+        return copy;
+    }
+
+    /**
+     * Lista de IDs ampliable sin boxing, solo para reconstruir el índice.
+     */
+    private static final class LongList {
+
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    private Set<String> documentGrams(Entry entry) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String token : tokenize(entry.name())) {
+            addGrams(" " + token, grams);
+        }
+        for (String token : tokenize(entry.isbn())) {
+            addGrams(" " + token, grams);
+        }
+        return grams;
+    }
+
+    // Términos de 3 o más caracteres: trigramas sin relleno (coinciden en
+    // cualquier posición). Términos de 2: trigrama con el espacio inicial
+    // (coinciden solo como prefijo de palabra)
+    private Set<String> queryGrams(List<String> terms) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String term : terms) {
+            addGrams(term.length() >= GRAM ? term : " " + term, grams);
+        }
+        return grams;
+    }
+
+    private static void addGrams(String text, Set<String> grams) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+    }
+
+    private static List<String> tokenize(String normalized) {
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return List.of(normalized.split(" "));
+    }
+
+    // Minúsculas, sin tildes ni guiones (para que "978-84" y "97884" coincidan)
+    // y con un único espacio entre palabras
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String plain = DIACRITICS.matcher(decomposed).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace("-", "");
+        return SEPARATORS.matcher(plain).replaceAll(" ").trim();
+    }
+}
@@ -1,40 +1,237 @@
 package org.lumbi.ejercicio.service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import org.lumbi.ejercicio.config.BookProperties;
 import org.lumbi.ejercicio.domain.BookDomain;
+import org.lumbi.ejercicio.domain.Isbn;
+import org.lumbi.ejercicio.domain.UserDomain;
+import org.lumbi.ejercicio.dto.BookBatchResult;
+import org.lumbi.ejercicio.dto.BookBulkFilter;
+import org.lumbi.ejercicio.dto.BookBulkUpdateRequest;
+import org.lumbi.ejercicio.dto.BookCatalogVersion;
+import org.lumbi.ejercicio.dto.BookCursor;
+import org.lumbi.ejercicio.dto.BookPage;
+import org.lumbi.ejercicio.dto.BookRequestDTO;
+import org.lumbi.ejercicio.dto.BookResponseDTO;
+import org.lumbi.ejercicio.dto.UserBookSummary;
 import org.lumbi.ejercicio.repository.BookRepository;
+import org.lumbi.ejercicio.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
 @Service
 @Transactional
 public class BookService {
 
     private final BookRepository bookRepository;
+    private final UserRepository userRepository;
+    private final BookProperties bookProperties;
+    private final BookSearchIndex bookSearchIndex;
+    private final IsbnLookupCache isbnLookupCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
 
-    public BookService(BookRepository bookRepository) {
+    public BookService(BookRepository bookRepository, UserRepository userRepository, BookProperties bookProperties,
+            BookSearchIndex bookSearchIndex, IsbnLookupCache isbnLookupCache, ApplicationEventPublisher eventPublisher,
+            Validator validator) {
         this.bookRepository = bookRepository;
+        this.userRepository = userRepository;
+        this.bookProperties = bookProperties;
+        this.bookSearchIndex = bookSearchIndex;
+        this.isbnLookupCache = isbnLookupCache;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
     }
 
     /**
-     * Obtener todos los libros
+     * Obtener todos los libros como vistas de solo lectura
      * 
      * @return Lista de libros
      */
-    public List<BookDomain> getAllBooks() {
-        return bookRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<BookResponseDTO> getAllBooks() {
+        return bookRepository.findAllViews();
+    }
+
+    /**
+     * Obtener una página de libros a partir de un cursor. Se pide una fila más
+     * del tamaño de página para saber si hay página siguiente sin hacer COUNT.
+     * 
+     * @param cursor posición tras la que empieza la página
+     * @param size   tamaño de página solicitado (se acota a los límites
+     *               configurados)
+     * @return Página de libros con el cursor a la siguiente, si existe
+     */
+    @Transactional(readOnly = true)
+    public BookPage getBooksPage(BookCursor cursor, int size) {
+        int pageSize = resolvePageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<BookResponseDTO> rows = switch (cursor.sort()) {
+            case ID -> bookRepository.findPageAfterId(cursor.lastId(), limit);
+            case CREATED_AT -> bookRepository.findPageAfterCreatedAt(cursor.createdAt(), cursor.lastId(), limit);
+            case BOOKNAME -> bookRepository.findPageAfterBookname(cursor.value(), cursor.lastId(), limit);
+        };
+
+        if (rows.size() <= pageSize) {
+            return new BookPage(rows, null);
+        }
+        List<BookResponseDTO> items = rows.subList(0, pageSize);
+        return new BookPage(items, BookCursor.after(cursor.sort(), items.get(pageSize - 1)));
+    }
+
+    /**
+     * Acota el tamaño de página a [1, maxPageSize]; valores no positivos usan el
+     * tamaño por defecto.
+     * 
+     * @param size tamaño solicitado
+     * @return tamaño efectivo
+     */
+    public int resolvePageSize(int size) {
+        if (size <= 0) {
+            return bookProperties.getDefaultPageSize();
+        }
+        return Math.min(size, bookProperties.getMaxPageSize());
+    }
+
+    /**
+     * Buscar libros por nombre o ISBN usando el índice invertido en memoria.
+     * Solo se consulta la base de datos para las coincidencias devueltas.
+     * 
+     * @param query texto a buscar
+     * @param limit número máximo de resultados (se acota a los límites
+     *              configurados)
+     * @return Libros encontrados, del más al menos relevante
+     */
+    @Transactional(readOnly = true)
+    public List<BookResponseDTO> searchBooks(String query, int limit) {
+        int effectiveLimit = limit <= 0
+                ? bookProperties.getDefaultSearchLimit()
+                : Math.min(limit, bookProperties.getMaxSearchLimit());
+        List<Long> ranked = bookSearchIndex.search(query, effectiveLimit);
+        if (ranked.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> position = IntStream.range(0, ranked.size()).boxed()
+                .collect(Collectors.toMap(ranked::get, Function.identity()));
+        return bookRepository.findViewsByIdIn(ranked).stream()
+                .sorted(Comparator.comparing(book -> position.get(book.id())))
+                .toList();
     }
 
     /**
      * Obtener libro por ID
      * 
      * @param id ID del libro
-     * @return Optional con el libro o vacío si no existe
+     * @return Optional con la vista del libro o vacío si no existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<BookResponseDTO> getBookById(Long id) {
+        return bookRepository.findViewById(id);
+    }
+
+    /**
+     * Obtener los libros añadidos por un usuario, con una sola consulta
+     * 
+     * @param userId ID del usuario
+     * @return Libros del usuario ordenados por ID
+     */
+    @Transactional(readOnly = true)
+    public List<BookResponseDTO> getBooksByUser(Long userId) {
+        return bookRepository.findViewsByAddedById(userId);
+    }
+
+    /**
+     * Obtener los libros de varios usuarios con una sola consulta,
+     * independientemente del número de usuarios
+     * 
+     * @param userIds IDs de los usuarios
+     * @return Libros agrupados por ID de usuario, en el orden pedido (lista
+     *         vacía para los usuarios sin libros)
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<BookResponseDTO>> getBooksByUsers(Collection<Long> userIds) {
+        Map<Long, List<BookResponseDTO>> byUser = new LinkedHashMap<>();
+        userIds.forEach(id -> byUser.put(id, new ArrayList<>()));
+        if (!userIds.isEmpty()) {
+            bookRepository.findViewsByAddedByIdIn(userIds)
+                    .forEach(book -> byUser.get(book.addedById()).add(book));
+        }
+        return byUser;
+    }
+
+    /**
+     * Contar los libros de varios usuarios sin cargarlos
+     * 
+     * @param userIds IDs de los usuarios
+     * @return Resumen de los usuarios existentes ordenado por ID
+     */
+    @Transactional(readOnly = true)
+    public List<UserBookSummary> summarizeBooksByUsers(Collection<Long> userIds) {
+        return userIds.isEmpty() ? List.of() : userRepository.summarizeBooksByIdIn(userIds);
+    }
+
+    /**
+     * Fecha de la última modificación de un libro, sin cargarlo. Sirve para
+     * responder a peticiones condicionales.
+     * 
+     * @param id ID del libro
+     * @return Optional con la fecha o vacío si el libro no existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<Instant> getBookVersion(Long id) {
+        return bookRepository.findUpdatedAtById(id);
+    }
+
+    /**
+     * Versión del catálogo completo (número de libros y última modificación),
+     * para responder a peticiones condicionales sobre listas.
+     * 
+     * @return Versión del catálogo
      */
-    public Optional<BookDomain> getBookById(Long id) {
-        return bookRepository.findById(id);
+    @Transactional(readOnly = true)
+    public BookCatalogVersion getCatalogVersion() {
+        return bookRepository.findCatalogVersion();
+    }
+
+    /**
+     * Obtener libro por su ISBN-13 canónico. Las búsquedas repetidas se
+     * resuelven desde IsbnLookupCache sin ir a la base de datos.
+     * 
+     * @param isbn13 ISBN-13 canónico (ver Isbn.toIsbn13)
+     * @return Optional con la vista del libro o vacío si no existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<BookResponseDTO> getBookByIsbn13(long isbn13) {
+        Optional<BookResponseDTO> cached = isbnLookupCache.get(isbn13);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        long generation = isbnLookupCache.generation();
+        Optional<BookResponseDTO> book = bookRepository.findViewByIsbn13(isbn13);
+        book.ifPresent(found -> isbnLookupCache.put(isbn13, found, generation));
+        return book;
     }
 
     /**
@@ -44,7 +241,89 @@ public class BookService {
      * @return Libro guardado
      */
     public BookDomain saveBook(BookDomain book) {
-        return bookRepository.save(book);
+        BookDomain saved = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.saved(saved.getId(), saved.getIsbn13()));
+        return saved;
+    }
+
+    /**
+     * Guardar un lote de libros en una sola transacción. Cada libro se valida
+     * por separado y los que fallan se informan sin impedir el alta del resto.
+     * Los usuarios y los ISBN existentes se consultan una sola vez para todo el
+     * lote y las inserciones se envían en lotes JDBC al confirmar.
+     * 
+     * @param requests Libros a crear
+     * @return Resultado de cada libro, en el mismo orden que la petición
+     */
+    public List<BookBatchResult> saveBooks(List<BookRequestDTO> requests) {
+        BookBatchResult[] results = new BookBatchResult[requests.size()];
+        Map<Integer, BookRequestDTO> valid = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookRequestDTO request = requests.get(i);
+            if (request == null) {
+                results[i] = BookBatchResult.failed(i, BookBatchResult.Status.INVALID, "Libro vacío");
+                continue;
+            }
+            Set<ConstraintViolation<BookRequestDTO>> violations = validator.validate(request);
+            if (violations.isEmpty() && request.getAddedById() == null) {
+                // Opcional en POST /api/books (se usa el usuario del token), pero
+                // obligatorio aquí
+                results[i] = BookBatchResult.failed(i, BookBatchResult.Status.INVALID,
+                        "ID del usuario que agrega el libro es obligatorio");
+            } else if (violations.isEmpty()) {
+                valid.put(i, request);
+            } else {
+                results[i] = BookBatchResult.failed(i, BookBatchResult.Status.INVALID, violations.stream()
+                        .map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; ")));
+            }
+        }
+
+        Set<Long> ownerIds = valid.values().stream().map(BookRequestDTO::getAddedById).collect(Collectors.toSet());
+        Map<Long, UserDomain> owners = ownerIds.isEmpty() ? Map.of()
+                : userRepository.findAllById(ownerIds).stream()
+                        .collect(Collectors.toMap(UserDomain::getId, Function.identity()));
+
+        Set<String> isbns = valid.values().stream().map(BookRequestDTO::getIsbn).collect(Collectors.toSet());
+        Set<Long> isbn13s = isbns.stream().map(Isbn::toIsbn13).filter(OptionalLong::isPresent)
+                .map(OptionalLong::getAsLong).collect(Collectors.toSet());
+        Set<String> takenIsbns = isbns.isEmpty() ? new HashSet<>()
+                : new HashSet<>(bookRepository.findExistingIsbns(isbns));
+        Set<Long> takenIsbn13s = isbn13s.isEmpty() ? new HashSet<>()
+                : new HashSet<>(bookRepository.findExistingIsbn13s(isbn13s));
+
+        List<Integer> positions = new ArrayList<>();
+        List<BookDomain> books = new ArrayList<>();
+        valid.forEach((index, request) -> {
+            UserDomain owner = owners.get(request.getAddedById());
+            OptionalLong isbn13 = Isbn.toIsbn13(request.getIsbn());
+            if (owner == null) {
+                results[index] = BookBatchResult.failed(index, BookBatchResult.Status.UNKNOWN_USER,
+                        "No existe el usuario " + request.getAddedById());
+            } else if (!takenIsbns.add(request.getIsbn())
+                    || (isbn13.isPresent() && !takenIsbn13s.add(isbn13.getAsLong()))) {
+                // Incluye los ISBN repetidos dentro del propio lote
+                results[index] = BookBatchResult.failed(index, BookBatchResult.Status.DUPLICATE_ISBN,
+                        "Ya existe un libro con ese ISBN");
+            } else {
+                BookDomain book = new BookDomain();
+                book.setISBN(request.getIsbn());
+                book.setBookName(request.getBookname());
+                book.setPublishYear(request.getPublish_year());
+                book.setAddedBy(owner);
+                positions.add(index);
+                books.add(book);
+            }
+        });
+
+        if (!books.isEmpty()) {
+            List<BookDomain> saved = bookRepository.saveAll(books);
+            for (int i = 0; i < saved.size(); i++) {
+                results[positions.get(i)] = BookBatchResult.created(positions.get(i), saved.get(i).getId());
+            }
+            BookChangedEvent.chunks(saved.stream().map(BookDomain::getId).toList())
+                    .forEach(chunk -> eventPublisher.publishEvent(BookChangedEvent.saved(chunk)));
+        }
+        return List.of(results);
     }
 
     /**
@@ -55,13 +334,50 @@ public class BookService {
      */
     public Optional<BookDomain> updateBook(Long id, BookDomain bookDetails) {
         return bookRepository.findById(id).map(existingBook -> {
+            Long previousIsbn13 = existingBook.getIsbn13();
             existingBook.setBookName(bookDetails.getBookName());
             existingBook.setISBN(bookDetails.getISBN());
             existingBook.setPublishYear(bookDetails.getPublishYear());
-            return bookRepository.save(existingBook);
+            BookDomain saved = bookRepository.save(existingBook);
+            eventPublisher.publishEvent(BookChangedEvent.saved(id, previousIsbn13, saved.getIsbn13()));
+            return saved;
         });
     }
 
+    /**
+     * Actualizar en bloque los libros que cumplen un filtro, con una única
+     * sentencia UPDATE. Como no se leen los IDs afectados, las cachés se
+     * invalidan con un evento masivo.
+     * 
+     * @param request Filtro y campos a asignar
+     * @return Número de libros actualizados
+     */
+    public int updateBooks(BookBulkUpdateRequest request) {
+        int updated = bookRepository.updateMatching(request.filter(), request.publishYear(),
+                request.addedById(), Instant.now());
+        if (updated > 0) {
+            // Solo cambian el año y el propietario: el índice de búsqueda no se relee
+            eventPublisher.publishEvent(BookChangedEvent.bulk(BookChangedEvent.ChangeType.UPDATED));
+        }
+        return updated;
+    }
+
+    /**
+     * Eliminar en bloque los libros que cumplen un filtro, con una única
+     * sentencia DELETE. Como en updateBooks, las cachés y el índice de
+     * búsqueda se actualizan con un evento masivo.
+     * 
+     * @param filter Libros a eliminar
+     * @return Número de libros eliminados
+     */
+    public int deleteBooks(BookBulkFilter filter) {
+        int deleted = bookRepository.deleteMatching(filter);
+        if (deleted > 0) {
+            eventPublisher.publishEvent(BookChangedEvent.bulk(BookChangedEvent.ChangeType.DELETED));
+        }
+        return deleted;
+    }
+
     /**
      * Eliminar un libro
      * 
@@ -71,6 +387,7 @@ public class BookService {
     public boolean deleteBook(Long id) {
         return bookRepository.findById(id).map(book -> {
             bookRepository.delete(book);
+            eventPublisher.publishEvent(BookChangedEvent.deleted(id, book.getIsbn13()));
             return true;
         }).orElse(false);
     }
@@ -0,0 +1,107 @@
+package org.lumbi.ejercicio.service;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.lumbi.ejercicio.config.BookProperties;
+import org.lumbi.ejercicio.dto.BookResponseDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Caché de acceso directo ISBN-13 → libro para las búsquedas por ISBN más
+ * frecuentes. La clave es el long canónico (sin boxing ni cadenas) y cada
+ * ISBN solo puede ocupar una ranura, así que el tamaño está acotado y una
+ * colisión simplemente sustituye la entrada anterior.
+ *
+ * Las entradas se invalidan con los ISBN-13 de los BookChangedEvent, que
+ * señalan directamente su ranura. Un contador de generación evita guardar un
+ * resultado leído antes de una invalidación.
+ */
+@Component
+public class IsbnLookupCache {
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int mask;
+    private final AtomicLong generation = new AtomicLong();
+
+    public IsbnLookupCache(BookProperties bookProperties) {
+        int capacity = Integer.highestOneBit(Math.max(16, bookProperties.getIsbnCacheSize() - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    private record Slot(long isbn13, BookResponseDTO book) {
+    }
+
+    /**
+     * Busca un libro por su ISBN-13 canónico.
+     *
+     * @param isbn13 ISBN-13 como número
+     * @return Optional con el libro o vacío si no está en caché
+     */
+    public Optional<BookResponseDTO> get(long isbn13) {
+        Slot slot = slots.get(indexOf(isbn13));
+        return slot != null && slot.isbn13() == isbn13 ? Optional.of(slot.book()) : Optional.empty();
+    }
+
+    /**
+     * Generación actual. Se lee antes de consultar la base de datos y se pasa a
+     * put para descartar resultados que una invalidación haya dejado obsoletos.
+     *
+     * @return generación actual
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Guarda un libro si no ha habido invalidaciones desde que se leyó.
+     *
+     * @param isbn13         ISBN-13 como número
+     * @param book           libro leído de la base de datos
+     * @param readGeneration generación leída antes de la consulta
+     */
+    public void put(long isbn13, BookResponseDTO book, long readGeneration) {
+        if (generation.get() != readGeneration) {
+            return;
+        }
+        int index = indexOf(isbn13);
+        Slot slot = new Slot(isbn13, book);
+        slots.set(index, slot);
+        // Una invalidación entre la comprobación y la escritura ya ha pasado
+        // por la ranura: se deshace la escritura para no dejar el libro obsoleto
+        if (generation.get() != readGeneration) {
+            slots.compareAndSet(index, slot, null);
+        }
+    }
+
+    /**
+     * Invalida las entradas de los libros modificados o eliminados.
+     *
+     * @param event Libros afectados
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.bulk()) {
+            for (int i = 0; i < slots.length(); i++) {
+                slots.set(i, null);
+            }
+            return;
+        }
+        for (long isbn13 : event.isbn13s()) {
+            int index = indexOf(isbn13);
+            Slot slot = slots.get(index);
+            if (slot != null && slot.isbn13() == isbn13) {
+                slots.compareAndSet(index, slot, null);
+            }
+        }
+    }
+
+    private int indexOf(long isbn13) {
+        long hash = isbn13 * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,131 @@
+package org.lumbi.ejercicio.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import org.lumbi.ejercicio.config.JwtProperties;
+import org.lumbi.ejercicio.domain.RefreshTokenDomain;
+import org.lumbi.ejercicio.domain.UserDomain;
+import org.lumbi.ejercicio.repository.RefreshTokenRepository;
+import org.lumbi.ejercicio.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Refresh tokens opacos y de un solo uso.
+ *
+ * El token son 32 bytes aleatorios; en la base de datos solo se guarda su
+ * SHA-256 (basta un hash rápido porque el valor no se puede adivinar), así que
+ * renovar la sesión no calcula ningún hash de contraseña. Cada uso borra el
+ * token y emite otro (rotación) y los caducados se eliminan periódicamente.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final Duration expiration;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+            JwtProperties jwtProperties) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.expiration = jwtProperties.getRefreshExpiration();
+    }
+
+    /**
+     * Resultado de rotar un refresh token.
+     *
+     * @param userId       usuario al que pertenecía el token
+     * @param refreshToken nuevo refresh token
+     */
+    public record Rotation(Long userId, String refreshToken) {
+    }
+
+    /**
+     * Emite un refresh token para un usuario.
+     *
+     * @param userId ID del usuario
+     * @return refresh token en claro
+     */
+    public String issue(Long userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = ENCODER.encodeToString(bytes);
+        UserDomain user = userRepository.getReferenceById(userId);
+        refreshTokenRepository.save(new RefreshTokenDomain(hash(token), user, Instant.now().plus(expiration)));
+        return token;
+    }
+
+    /**
+     * Consume un refresh token y emite otro para el mismo usuario.
+     *
+     * @param token refresh token en claro
+     * @return Optional con el usuario y el nuevo token, o vacío si el token no
+     *         existe, ha caducado o ya se ha usado
+     */
+    public Optional<Rotation> rotate(String token) {
+        Optional<RefreshTokenDomain> stored = refreshTokenRepository.findByTokenHash(hash(token));
+        if (stored.isEmpty() || refreshTokenRepository.consumeById(stored.get().getId()) != 1) {
+            return Optional.empty();
+        }
+        if (!stored.get().getExpiresAt().isAfter(Instant.now())) {
+            return Optional.empty();
+        }
+        Long userId = stored.get().getUser().getId();
+        return Optional.of(new Rotation(userId, issue(userId)));
+    }
+
+    /**
+     * Revoca un refresh token (p. ej. al cerrar sesión). Solo se revoca si
+     * pertenece al usuario indicado, para que nadie pueda cerrar la sesión de
+     * otro con un refresh token ajeno.
+     *
+     * @param token  refresh token en claro
+     * @param userId ID del usuario autenticado
+     * @return true si el token existía, era del usuario y se ha revocado
+     */
+    public boolean revoke(String token, Long userId) {
+        // getUser() es un proxy LAZY: leer su id no consulta la tabla users
+        return refreshTokenRepository.findByTokenHash(hash(token))
+                .filter(stored -> stored.getUser().getId().equals(userId))
+                .map(stored -> refreshTokenRepository.consumeById(stored.getId()) > 0)
+                .orElse(false);
+    }
+
+    /**
+     * Borra los refresh tokens caducados.
+     */
+    @Scheduled(fixedDelayString = "#{@jwtProperties.refreshSweepInterval.toMillis()}")
+    public void sweepExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.debug("Refresh tokens caducados eliminados: {}", deleted);
+        }
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return ENCODER.encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
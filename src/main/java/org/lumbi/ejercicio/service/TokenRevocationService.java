@@ -0,0 +1,88 @@
+package org.lumbi.ejercicio.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.lumbi.ejercicio.domain.RevokedTokenDomain;
+import org.lumbi.ejercicio.repository.RevokedTokenRepository;
+import org.lumbi.ejercicio.security.TokenRevocationList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Revocación de tokens JWT.
+ *
+ * JwtTokenFilter solo consulta TokenRevocationList, en memoria, así que la
+ * revocación no añade ninguna consulta a las peticiones. Las revocaciones se
+ * guardan además en revoked_tokens: la lista se carga al arrancar y cada
+ * revocation-sync-interval se incorporan las hechas en otros nodos. Las filas
+ * de tokens ya expirados se borran cada revocation-sweep-interval.
+ */
+@Service
+@Transactional
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Margen para no perder revocaciones confirmadas durante la sincronización
+    // anterior o con relojes algo desfasados entre nodos
+    static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenRevocationList revocationList;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+            TokenRevocationList revocationList) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revocationList = revocationList;
+    }
+
+    /**
+     * Revoca un token JWT hasta su expiración.
+     *
+     * @param jti       claim jti del token
+     * @param expiresAt expiración del token
+     * @return false si la lista de revocados está llena
+     */
+    public boolean revoke(String jti, Instant expiresAt) {
+        if (!revocationList.revoke(jti, expiresAt)) {
+            log.warn("Lista de tokens revocados llena ({} entradas)", revocationList.size());
+            return false;
+        }
+        if (!revokedTokenRepository.existsByJti(jti)) {
+            revokedTokenRepository.save(new RevokedTokenDomain(jti, expiresAt, Instant.now()));
+        }
+        return true;
+    }
+
+    /**
+     * Incorpora a la lista en memoria las revocaciones guardadas desde la
+     * última sincronización (todas las vigentes al arrancar) y descarta las
+     * expiradas.
+     */
+    // La primera ejecución programada es inmediata, al arrancar
+    @Scheduled(fixedDelayString = "#{@jwtProperties.revocationSyncInterval.toMillis()}")
+    @Transactional(readOnly = true)
+    public void sync() {
+        Instant now = Instant.now();
+        revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(lastSync.minus(SYNC_OVERLAP), now)
+                .forEach(revoked -> revocationList.revoke(revoked.getJti(), revoked.getExpiresAt()));
+        revocationList.purgeExpired();
+        lastSync = now;
+    }
+
+    /**
+     * Borra las revocaciones de tokens ya expirados.
+     */
+    @Scheduled(fixedDelayString = "#{@jwtProperties.revocationSweepInterval.toMillis()}")
+    public void sweepExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.debug("Revocaciones de tokens expirados eliminadas: {}", deleted);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.lumbi.ejercicio.service;
+
+import java.util.Optional;
+
+import org.lumbi.ejercicio.config.UserProperties;
+import org.lumbi.ejercicio.dto.UserSnapshot;
+import org.lumbi.ejercicio.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché de usuarios por id y por username para las rutas que no autentican
+ * (comprobar que un usuario existe, renovar tokens...). Guarda UserSnapshot,
+ * sin el hash de la contraseña, y lo carga con una proyección que tampoco lo
+ * lee.
+ *
+ * El tamaño está acotado por cache-size y las entradas expiran a los
+ * cache-ttl, lo que también limita cuánto tarda en verse aquí un cambio hecho
+ * en otro nodo. Los usuarios que no existen no se guardan, así que un
+ * registro nuevo se ve al instante.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, UserSnapshot> byId;
+    private final Cache<String, UserSnapshot> byUsername;
+
+    public UserCache(UserRepository userRepository, UserProperties userProperties, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(userProperties.getCacheSize())
+                .expireAfterWrite(userProperties.getCacheTtl())
+                .recordStats()
+                .build();
+        this.byUsername = Caffeine.newBuilder()
+                .maximumSize(userProperties.getCacheSize())
+                .expireAfterWrite(userProperties.getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "usersById");
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "usersByUsername");
+    }
+
+    /**
+     * Busca un usuario por su ID.
+     *
+     * @param id ID del usuario
+     * @return Optional con el usuario o vacío si no existe
+     */
+    public Optional<UserSnapshot> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        UserSnapshot user = byId.get(id, key -> userRepository.findSnapshotById(key).orElse(null));
+        if (user != null) {
+            byUsername.put(user.username(), user);
+        }
+        return Optional.ofNullable(user);
+    }
+
+    /**
+     * Busca un usuario por su nombre de usuario.
+     *
+     * @param username nombre del usuario
+     * @return Optional con el usuario o vacío si no existe
+     */
+    public Optional<UserSnapshot> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        UserSnapshot user = byUsername.get(username,
+                key -> userRepository.findSnapshotByUsername(key).orElse(null));
+        if (user != null) {
+            byId.put(user.id(), user);
+        }
+        return Optional.ofNullable(user);
+    }
+
+    /**
+     * Elimina un usuario de la caché (al registrarlo o cambiar su contraseña).
+     *
+     * @param id       ID del usuario
+     * @param username nombre del usuario
+     */
+    public void invalidate(Long id, String username) {
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        if (username != null) {
+            byUsername.invalidate(username);
+        }
+    }
+}
@@ -1,104 +1,229 @@
 package org.lumbi.ejercicio.service;
 
+import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
 import org.lumbi.ejercicio.domain.UserDomain;
+import org.lumbi.ejercicio.dto.AuthTokens;
+import org.lumbi.ejercicio.dto.UserSnapshot;
 import org.lumbi.ejercicio.repository.UserRepository;
 import org.lumbi.ejercicio.security.JwtTokenProvider;
-import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.lumbi.ejercicio.security.PasswordHasher;
+import org.lumbi.ejercicio.security.PasswordHashingUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtTokenProvider jwtTokenProvider;
+    private final UsernameBloomFilter usernameFilter;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserCache userCache;
 
-    public UserService(UserRepository userRepository, JwtTokenProvider jwtTokenProvider) {
+    public UserService(UserRepository userRepository, PasswordHasher passwordHasher,
+            JwtTokenProvider jwtTokenProvider, UsernameBloomFilter usernameFilter,
+            RefreshTokenService refreshTokenService, TokenRevocationService tokenRevocationService,
+            UserCache userCache) {
         this.userRepository = userRepository;
-        this.passwordEncoder = Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+        this.passwordHasher = passwordHasher;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.usernameFilter = usernameFilter;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userCache = userCache;
     }
 
     /**
      * Registra un nuevo usuario si el nombre de usuario no está ya en uso.
      * Devuelve un Optional con el usuario registrado o vacío si el nombre de
-     * usuario ya existe
+     * usuario ya existe.
+     *
+     * La unicidad la garantiza la restricción única de users.username: el
+     * usuario se inserta directamente y una violación significa que el nombre
+     * está ocupado. Solo si el filtro de Bloom dice que el nombre puede existir
+     * se consulta antes, para no calcular el hash en vano. Se ejecuta fuera de
+     * la transacción de la clase porque una violación dentro de ella la
+     * marcaría para rollback (y así tampoco se retiene una conexión mientras
+     * se calcula el hash).
      * 
      * @param username Nombre de usuario del nuevo usuario
      * 
      * @param password Contraseña del nuevo usuario
+     * @throws PasswordHashingUnavailableException si no se puede calcular el
+     *                                             hash por saturación
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<UserDomain> registerUser(String username, String password) {
         return Optional.of(username)
                 .filter(this::isUsernameAvailable)
                 .map(encodePassword(password))
-                .map(this::saveUser);
+                .flatMap(this::saveUser);
     }
 
     /**
-     * Autentica a un usuario y genera un token JWT si las credenciales son válidas.
-     * Devuelve un Optional con el token o vacío si la autenticación falla.
+     * Autentica a un usuario y genera un token JWT si las credenciales son válidas,
+     * junto con un refresh token para renovarlo sin volver a enviar la contraseña.
+     * Devuelve un Optional con los tokens o vacío si la autenticación falla.
+     *
+     * Se ejecuta fuera de la transacción de la clase: la verificación (y el
+     * posible rehash) puede esperar a un hueco del hasher y no debe retener
+     * una conexión del pool mientras tanto. La lectura del usuario, el
+     * guardado del nuevo hash y la emisión del refresh token usan cada uno
+     * su propia transacción corta.
      * 
      * @param username Nombre de usuario del usuario
      * 
      * @param password Contraseña del usuario
+     * @throws PasswordHashingUnavailableException si no se puede verificar la
+     *                                             contraseña por saturación
      */
-    public Optional<String> authenticateAndGenerateToken(String username, String password) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<AuthTokens> authenticateAndGenerateToken(String username, String password) {
         return userRepository.findByUsername(username)
-                .filter(user -> passwordEncoder.matches(password, user.getPassword()))
-                .map(this::generateTokenForUser);
+                .filter(user -> passwordHasher.matches(password, user.getPassword()))
+                .map(user -> rehashIfOutdated(user, password))
+                .map(user -> new AuthTokens(generateTokenForUser(user.getId(), user.getUsername()),
+                        refreshTokenService.issue(user.getId())));
+    }
+
+    /**
+     * Renueva la sesión con un refresh token: lo consume, emite otro y genera
+     * un nuevo token JWT, sin calcular ningún hash de contraseña (el usuario
+     * sale de la caché).
+     * Devuelve un Optional con los tokens o vacío si el refresh token no es
+     * válido, ha caducado o ya se ha usado.
+     * 
+     * @param refreshToken Refresh token recibido en el login o en la última
+     *                     renovación
+     */
+    public Optional<AuthTokens> refresh(String refreshToken) {
+        return refreshTokenService.rotate(refreshToken)
+                .flatMap(rotation -> userCache.findById(rotation.userId())
+                        .map(user -> new AuthTokens(generateTokenForUser(user.id(), user.username()),
+                                rotation.refreshToken())));
     }
 
-    private String generateTokenForUser(UserDomain user) {
+    /**
+     * Cierra la sesión: revoca el token JWT hasta su expiración y, si se
+     * indica, el refresh token (solo si es del mismo usuario).
+     * Devuelve false si no se ha podido revocar el token JWT porque la lista
+     * de revocados está llena.
+     * 
+     * @param userId       ID del usuario del token JWT ya verificado
+     * 
+     * @param jti          Claim jti del token JWT (null en tokens emitidos sin
+     *                     él, que no se pueden revocar)
+     * 
+     * @param expiresAt    Expiración del token JWT
+     * 
+     * @param refreshToken Refresh token a revocar, o null
+     */
+    public boolean logout(Long userId, String jti, Instant expiresAt, String refreshToken) {
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken, userId);
+        }
+        return jti == null || tokenRevocationService.revoke(jti, expiresAt);
+    }
+
+    // Los hashes con parámetros de Argon2 anteriores (más débiles) se rehacen
+    // al iniciar sesión, único momento en que se conoce la contraseña. Si el
+    // hasher está saturado se deja para el siguiente login. El hash se calcula
+    // sin transacción y la caché se invalida después del commit del save, para
+    // que una lectura concurrente no vuelva a guardar el hash anterior.
+    private UserDomain rehashIfOutdated(UserDomain user, String password) {
+        if (passwordHasher.upgradeEncoding(user.getPassword())) {
+            try {
+                user.setPassword(passwordHasher.encode(password));
+                userRepository.save(user);
+                userCache.invalidate(user.getId(), user.getUsername());
+            } catch (PasswordHashingUnavailableException e) {
+                log.debug("Rehash de la contraseña de {} aplazado: {}", user.getUsername(), e.getMessage());
+            }
+        }
+        return user;
+    }
+
+    private String generateTokenForUser(Long userId, String username) {
         Map<String, Object> claims = Map.of(
-                "userId", user.getId(),
+                "userId", userId,
                 "role", "USER");
-        return jwtTokenProvider.generateToken(user.getUsername(), claims);
+        return jwtTokenProvider.generateToken(username, claims);
     }
 
     private boolean isUsernameAvailable(String username) {
-        return !userRepository.existsByUsername(username);
+        return !usernameFilter.mightContain(username) || !userRepository.existsByUsername(username);
     }
 
     private Function<String, UserDomain> encodePassword(String password) {
         return username -> {
             UserDomain user = new UserDomain();
             user.setUsername(username);
-            user.setPassword(passwordEncoder.encode(password));
+            user.setPassword(passwordHasher.encode(password));
             return user;
         };
     }
 
-    private UserDomain saveUser(UserDomain user) {
-        return userRepository.save(user);
+    private Optional<UserDomain> saveUser(UserDomain user) {
+        try {
+            UserDomain saved = userRepository.saveAndFlush(user);
+            usernameFilter.put(saved.getUsername());
+            userCache.invalidate(saved.getId(), saved.getUsername());
+            return Optional.of(saved);
+        } catch (DataIntegrityViolationException e) {
+            // Otro registro (en este u otro nodo) ha ocupado el nombre antes
+            usernameFilter.put(user.getUsername());
+            return Optional.empty();
+        }
     }
 
     /**
-     * Busca un usuario por su nombre de usuario.
-     * Devuelve un Optional con el usuario o vacío si no se encuentra.
+     * Busca un usuario por su nombre de usuario, normalmente en la caché.
+     * Devuelve un Optional con el usuario (sin contraseña) o vacío si no se
+     * encuentra.
      * 
      * @param username Nombre de usuario a buscar
      * @return Optional con el usuario o vacío si no se encuentra
      */
-    public Optional<UserDomain> findByUsername(String username) {
-        return userRepository.findByUsername(username);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<UserSnapshot> findByUsername(String username) {
+        return userCache.findByUsername(username);
     }
 
     /**
-     * Busca un usuario por su ID.
-     * Devuelve un Optional con el usuario o vacío si no se encuentra.
+     * Busca un usuario por su ID, normalmente en la caché.
+     * Devuelve un Optional con el usuario (sin contraseña) o vacío si no se
+     * encuentra.
      * 
      * @param id ID del usuario a buscar
      * @return Optional con el usuario o vacío si no se encuentra
      */
-    public Optional<UserDomain> findById(Long id) {
-        return userRepository.findById(id);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<UserSnapshot> findById(Long id) {
+        return userCache.findById(id);
+    }
+
+    /**
+     * Devuelve una referencia al usuario sin consultar la base de datos, para
+     * asociarlo a otras entidades (p. ej. como autor de un libro). Solo debe
+     * usarse con IDs que se sabe que existen.
+     * 
+     * @param id ID del usuario
+     * @return Proxy del usuario
+     */
+    public UserDomain getReference(Long id) {
+        return userRepository.getReferenceById(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package org.lumbi.ejercicio.service;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+import org.lumbi.ejercicio.config.UserProperties;
+import org.lumbi.ejercicio.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Filtro de Bloom de los usernames registrados. Si dice que un username no
+ * está, seguro que no está (salvo que lo haya registrado otro nodo, caso que
+ * resuelve la restricción única), así que el registro se ahorra la consulta
+ * previa a la base de datos.
+ *
+ * Se construye al arrancar la aplicación y se actualiza con cada registro.
+ * Los bits se guardan en un AtomicLongArray, así que añadir y consultar no
+ * necesitan bloqueos. Mientras no está construido responde siempre "puede
+ * estar".
+ */
+@Component
+public class UsernameBloomFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameBloomFilter.class);
+
+    private final UserRepository userRepository;
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+    private volatile boolean loaded;
+
+    public UsernameBloomFilter(UserRepository userRepository, UserProperties userProperties) {
+        this.userRepository = userRepository;
+        int expected = Math.max(1, userProperties.getUsernameFilterExpectedSize());
+        double fpp = userProperties.getUsernameFilterFalsePositiveRate();
+        long optimalBits = (long) Math.ceil(-expected * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact((optimalBits + 63) / 64));
+        this.bitSize = (long) bits.length() * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expected * Math.log(2)));
+    }
+
+    /**
+     * Carga todos los usernames de la base de datos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long count = 0;
+        try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+            Iterator<String> iterator = usernames.iterator();
+            while (iterator.hasNext()) {
+                put(iterator.next());
+                count++;
+            }
+        }
+        loaded = true;
+        log.info("Filtro de usernames construido: {} usuarios, {} bits, {} funciones hash", count, bitSize,
+                hashFunctions);
+    }
+
+    /**
+     * Indica si un username puede estar registrado.
+     *
+     * @param username nombre de usuario
+     * @return false si seguro que no está registrado, true si puede estarlo
+     */
+    public boolean mightContain(String username) {
+        if (!loaded) {
+            return true;
+        }
+        long hash = hash64(username);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = bitIndex(hash1, hash2, i);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Añade un username registrado.
+     *
+     * @param username nombre de usuario
+     */
+    public void put(String username) {
+        long hash = hash64(username);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = bitIndex(hash1, hash2, i);
+            long mask = 1L << bit;
+            bits.getAndUpdate((int) (bit >>> 6), word -> word | mask);
+        }
+    }
+
+    // Doble hash (Kirsch-Mitzenmacher): k índices a partir de dos hashes
+    private long bitIndex(int hash1, int hash2, int i) {
+        long combined = hash1 + (long) i * hash2;
+        return (combined & Long.MAX_VALUE) % bitSize;
+    }
+
+    // FNV-1a de 64 bits con el mezclado final de MurmurHash3
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,25 @@
+-- Índices para los caminos de acceso que usan los repositorios. Las
+-- búsquedas "contiene" sin distinguir mayúsculas (findBy...ContainingIgnoreCase)
+-- no pueden usar un índice B-tree y quedan fuera; las atiende BookSearchIndex.
+
+-- Libros de un usuario ordenados por id (findViewsByAddedById,
+-- findViewsByAddedByIdIn, findByAddedBy, filtro addedById de las operaciones
+-- masivas, resumen de UserRepository y la clave ajena books -> users)
+CREATE INDEX ix_books_user_id ON books (user_id, id);
+
+-- Rango de años de las operaciones masivas (publishYearFrom/publishYearTo)
+CREATE INDEX ix_books_publish_year ON books (publish_year);
+
+-- max(updated_at) de findCatalogVersion (ETag del catálogo) sin recorrer la tabla
+CREATE INDEX ix_books_updated_at ON books (updated_at);
+
+-- Paginación por cursor ordenada por fecha de alta o por nombre: el índice
+-- sigue el mismo orden (columna, id), así que no hay que ordenar la tabla
+CREATE INDEX ix_books_created_at ON books (created_at, id);
+CREATE INDEX ix_books_bookname ON books (bookname, id);
+
+-- Clave ajena refresh_tokens -> users
+CREATE INDEX ix_refresh_tokens_user_id ON refresh_tokens (user_id);
+
+-- Borrado periódico de revocaciones de tokens ya expirados (deleteExpired)
+CREATE INDEX ix_revoked_tokens_expires_at ON revoked_tokens (expires_at);
@@ -0,0 +1,48 @@
+package org.lumbi.ejercicio.domain;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.OptionalLong;
+
+import org.junit.jupiter.api.Test;
+
+class IsbnUnitTest {
+
+    private static final long CANONICAL = 9780306406157L;
+
+    @Test
+    void toIsbn13_normalizesHyphensSpacesAndPrefix() {
+        assertEquals(OptionalLong.of(CANONICAL), Isbn.toIsbn13("978-0-306-40615-7"));
+        assertEquals(OptionalLong.of(CANONICAL), Isbn.toIsbn13("9780306406157"));
+        assertEquals(OptionalLong.of(CANONICAL), Isbn.toIsbn13("ISBN-13: 978 0 306 40615 7"));
+    }
+
+    @Test
+    void toIsbn13_convertsIsbn10() {
+        assertEquals(OptionalLong.of(CANONICAL), Isbn.toIsbn13("0-306-40615-2"),
+                "Un ISBN-10 debe convertirse al mismo ISBN-13");
+        assertEquals(OptionalLong.of(9780804429573L), Isbn.toIsbn13("080442957X"),
+                "El dígito de control X debe aceptarse en ISBN-10");
+    }
+
+    @Test
+    void toIsbn13_rejectsInvalidValues() {
+        assertTrue(Isbn.toIsbn13("978-0-306-40615-8").isEmpty(), "Dígito de control incorrecto");
+        assertTrue(Isbn.toIsbn13("0-306-40615-3").isEmpty(), "Dígito de control ISBN-10 incorrecto");
+        assertTrue(Isbn.toIsbn13("ISBN-INT-001").isEmpty());
+        assertTrue(Isbn.toIsbn13(null).isEmpty());
+    }
+
+    @Test
+    void toIsbn13_rejectsNonAsciiDigits() {
+        // Dígitos árabe-índicos: Character.isDigit los aceptaría
+        assertTrue(Isbn.toIsbn13("\u0669\u0667\u0668\u0660\u0663\u0660\u0666\u0664\u0660\u0666\u0661\u0665\u0667")
+                .isEmpty());
+        assertTrue(Isbn.toIsbn13("\u0660306406152").isEmpty(), "Tampoco en un ISBN-10");
+    }
+
+    @Test
+    void format_padsToThirteenDigits() {
+        assertEquals("9780306406157", Isbn.format(CANONICAL));
+    }
+}
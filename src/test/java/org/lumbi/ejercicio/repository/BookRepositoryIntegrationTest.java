@@ -1,18 +1,24 @@
 package org.lumbi.ejercicio.repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 import org.lumbi.ejercicio.domain.BookDomain;
 import org.lumbi.ejercicio.domain.UserDomain;
+import org.lumbi.ejercicio.dto.BookBulkFilter;
+import org.lumbi.ejercicio.dto.BookCatalogVersion;
+import org.lumbi.ejercicio.dto.BookResponseDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
 @DataJpaTest
 class BookRepositoryIntegrationTest {
@@ -124,6 +130,124 @@ class BookRepositoryIntegrationTest {
         assertTrue(allAddedByAuthor, "Todos los libros devueltos deben pertenecer al autor buscado");
     }
 
+    @Test
+    void findPageAfterBookname_devuelveLaSiguientePaginaSinOffset() {
+        UserDomain author = createAndSaveUser("autor_paginas");
+        for (String name : List.of("Delta", "Alfa", "Charlie", "Bravo")) {
+            BookDomain b = new BookDomain();
+            b.setISBN("PAG-" + name);
+            b.setBookName(name);
+            b.setPublishYear(2022);
+            b.setAddedBy(author);
+            bookRepository.save(b);
+        }
+
+        List<BookResponseDTO> first = bookRepository.findPageAfterBookname("", 0L, PageRequest.of(0, 2));
+        assertEquals(List.of("Alfa", "Bravo"), first.stream().map(BookResponseDTO::bookName).toList(),
+                "La primera página debe venir ordenada por nombre");
+
+        BookResponseDTO last = first.get(first.size() - 1);
+        List<BookResponseDTO> second = bookRepository.findPageAfterBookname(last.bookName(), last.id(),
+                PageRequest.of(0, 2));
+        assertEquals(List.of("Charlie", "Delta"), second.stream().map(BookResponseDTO::bookName).toList(),
+                "La segunda página debe continuar justo después del cursor");
+    }
+
+    @Test
+    void findViewById_devuelveLaProyeccionConElUsuario() {
+        UserDomain author = createAndSaveUser("autor_vista");
+        BookDomain b = new BookDomain();
+        b.setISBN("VISTA-1");
+        b.setBookName("Libro proyectado");
+        b.setPublishYear(2001);
+        b.setAddedBy(author);
+        BookDomain saved = bookRepository.save(b);
+
+        Optional<BookResponseDTO> view = bookRepository.findViewById(saved.getId());
+
+        assertTrue(view.isPresent(), "Se esperaba encontrar la vista del libro guardado");
+        assertEquals("VISTA-1", view.get().isbn());
+        assertEquals("Libro proyectado", view.get().bookName());
+        assertEquals(author.getId(), view.get().addedById(), "La vista debe incluir el id del usuario");
+        assertEquals("autor_vista", view.get().addedByUsername(), "La vista debe incluir el nombre del usuario");
+    }
+
+    @Test
+    void findViewByIsbn13_encuentraElLibroConCualquierFormaDelIsbn() {
+        BookDomain b = new BookDomain();
+        b.setISBN("0-306-40615-2");
+        b.setBookName("Libro con ISBN-10");
+        b.setPublishYear(1999);
+        b.setAddedBy(createAndSaveUser("autor_isbn"));
+        bookRepository.save(b);
+
+        Optional<BookResponseDTO> found = bookRepository.findViewByIsbn13(9780306406157L);
+
+        assertTrue(found.isPresent(), "El ISBN-10 guardado debe encontrarse por su ISBN-13 canónico");
+        assertEquals("0-306-40615-2", found.get().isbn(), "Se devuelve el ISBN tal y como se guardó");
+    }
+
+    @Test
+    void findCatalogVersion_cambiaConAltasYBajas() {
+        BookCatalogVersion empty = bookRepository.findCatalogVersion();
+        assertEquals(0, empty.count(), "Sin libros el recuento debe ser 0");
+
+        BookDomain b = new BookDomain();
+        b.setISBN("VERSION-1");
+        b.setBookName("Libro versionado");
+        b.setPublishYear(2020);
+        b.setAddedBy(createAndSaveUser("autor_version"));
+        BookDomain saved = bookRepository.save(b);
+
+        BookCatalogVersion afterInsert = bookRepository.findCatalogVersion();
+        assertEquals(1, afterInsert.count());
+        assertNotNull(afterInsert.lastUpdated(), "Con libros debe haber fecha de última modificación");
+
+        Optional<Instant> updatedAt = bookRepository.findUpdatedAtById(saved.getId());
+        assertEquals(Optional.of(afterInsert.lastUpdated()), updatedAt,
+                "La versión del libro debe coincidir con la última modificación del catálogo");
+
+        bookRepository.delete(saved);
+        assertEquals(0, bookRepository.findCatalogVersion().count(), "Una baja debe cambiar la versión del catálogo");
+        assertTrue(bookRepository.findUpdatedAtById(saved.getId()).isEmpty());
+    }
+
+    @Test
+    void bulkOperations_actualizanYEliminanConUnaSentencia() {
+        UserDomain author = createAndSaveUser("autor_masivo");
+        UserDomain other = createAndSaveUser("otro_masivo");
+        BookDomain old1 = bookRepository.save(newBook("MASIVO-1", 1950, author));
+        BookDomain old2 = bookRepository.save(newBook("MASIVO-2", 1960, author));
+        BookDomain recent = bookRepository.save(newBook("MASIVO-3", 2010, author));
+        bookRepository.save(newBook("MASIVO-4", 1955, other));
+
+        BookBulkFilter oldFromAuthor = new BookBulkFilter(null, author.getId(), null, 1999);
+        Instant now = Instant.parse("2030-01-01T00:00:00Z");
+        assertEquals(2, bookRepository.updateMatching(oldFromAuthor, 2000, null, now),
+                "Los criterios se combinan con AND");
+        assertEquals(Optional.of(now), bookRepository.findUpdatedAtById(old1.getId()),
+                "La actualización masiva debe fijar updatedAt");
+        assertEquals(Optional.of(now), bookRepository.findUpdatedAtById(old2.getId()));
+        assertNotEquals(Optional.of(now), bookRepository.findUpdatedAtById(recent.getId()),
+                "Los libros fuera del rango de años no deben cambiar");
+
+        BookBulkFilter sameYear = new BookBulkFilter(null, author.getId(), 2000, 2000);
+        assertEquals(2, bookRepository.deleteMatching(sameYear),
+                "La actualización masiva debe asignar el año a los libros filtrados");
+        assertEquals(List.of(recent.getId()), bookRepository.findExistingIds(List.of(old1.getId(), old2.getId(), recent.getId())));
+        assertEquals(1, bookRepository.deleteMatching(new BookBulkFilter(null, author.getId(), null, null)));
+        assertEquals(1, bookRepository.findCatalogVersion().count(), "Solo debe quedar el libro del otro usuario");
+    }
+
+    private BookDomain newBook(String isbn, int year, UserDomain author) {
+        BookDomain book = new BookDomain();
+        book.setISBN(isbn);
+        book.setBookName("Libro " + isbn);
+        book.setPublishYear(year);
+        book.setAddedBy(author);
+        return book;
+    }
+
     // Helper para crear y persistir usuarios en tests
     private UserDomain createAndSaveUser(String username) {
         UserDomain u = new UserDomain();
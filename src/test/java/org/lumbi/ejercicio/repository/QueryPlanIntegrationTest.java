@@ -0,0 +1,60 @@
+package org.lumbi.ejercicio.repository;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Comprueba con EXPLAIN que las consultas principales de los repositorios
+ * usan los índices de las migraciones en lugar de recorrer la tabla. El
+ * esquema lo crea Flyway y Hibernate lo valida al arrancar el test.
+ */
+@DataJpaTest
+class QueryPlanIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void librosDeUnUsuario_usanIxBooksUserId() {
+        // findViewsByAddedById / findViewsByAddedByIdIn / filtro addedById
+        assertUsesIndex("IX_BOOKS_USER_ID", """
+                select b.id, b.isbn, b.bookname, u.username from books b join users u on u.id = b.user_id
+                where u.id = 1 order by b.id""");
+        assertUsesIndex("IX_BOOKS_USER_ID", "select id from books where user_id in (1, 2, 3)");
+    }
+
+    @Test
+    void busquedaPorIsbn_usaLosIndicesUnicos() {
+        // findViewByIsbn13, findExistingIsbns, findExistingIsbn13s
+        assertUsesIndex("UX_BOOKS_ISBN13", "select id from books where isbn13 = 9780306406157");
+        assertUsesIndex("UK_BOOKS_ISBN", "select isbn from books where isbn in ('A', 'B')");
+    }
+
+    @Test
+    void operacionesMasivasYVersionDelCatalogo_usanSusIndices() {
+        assertUsesIndex("IX_BOOKS_PUBLISH_YEAR", "select id from books where publish_year between 1990 and 1999");
+        // findCatalogVersion: max(updated_at) se lee del extremo del índice
+        assertUsesIndex("IX_BOOKS_UPDATED_AT", "select max(updated_at) from books");
+    }
+
+    @Test
+    void usuariosYTokens_usanSusIndices() {
+        assertUsesIndex("UK_USERS_USERNAME", "select id, username from users where username = 'lector'");
+        assertUsesIndex("UX_REFRESH_TOKENS_TOKEN_HASH", "select id from refresh_tokens where token_hash = 'h'");
+        assertUsesIndex("IX_REVOKED_TOKENS_EXPIRES_AT",
+                "delete from revoked_tokens where expires_at <= timestamp with time zone '2024-01-01 00:00:00+00'");
+        assertUsesIndex("IX_REFRESH_TOKENS_EXPIRES_AT",
+                "delete from refresh_tokens where expires_at <= timestamp with time zone '2024-01-01 00:00:00+00'");
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = jdbcTemplate.queryForObject("explain " + sql, String.class).toUpperCase();
+        // H2 indica en un comentario del plan el índice elegido para cada tabla
+        // (o "tableScan" si la recorre entera)
+        assertTrue(plan.contains(index), "La consulta debería usar " + index + ", plan: " + plan);
+    }
+}
@@ -0,0 +1,54 @@
+package org.lumbi.ejercicio.repository;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.lumbi.ejercicio.domain.RefreshTokenDomain;
+import org.lumbi.ejercicio.domain.UserDomain;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest
+class RefreshTokenRepositoryIntegrationTest {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void consumeById_borraElTokenUnaSolaVez() {
+        RefreshTokenDomain token = refreshTokenRepository.save(
+                new RefreshTokenDomain("hash-1", newUser("refresh_1"), Instant.now().plus(1, ChronoUnit.DAYS)));
+
+        assertTrue(refreshTokenRepository.findByTokenHash("hash-1").isPresent(),
+                "El token debe encontrarse por su hash");
+        assertEquals(1, refreshTokenRepository.consumeById(token.getId()), "El primer uso consume el token");
+        assertEquals(0, refreshTokenRepository.consumeById(token.getId()), "Un token ya consumido no se puede reusar");
+        assertTrue(refreshTokenRepository.findByTokenHash("hash-1").isEmpty());
+    }
+
+    @Test
+    void deleteExpired_soloBorraLosCaducados() {
+        UserDomain user = newUser("refresh_2");
+        Instant now = Instant.now();
+        refreshTokenRepository.save(new RefreshTokenDomain("caducado", user, now.minus(1, ChronoUnit.MINUTES)));
+        refreshTokenRepository.save(new RefreshTokenDomain("vigente", user, now.plus(1, ChronoUnit.DAYS)));
+        refreshTokenRepository.flush();
+
+        assertEquals(1, refreshTokenRepository.deleteExpired(now), "Solo debe borrarse el token caducado");
+        assertTrue(refreshTokenRepository.findByTokenHash("vigente").isPresent());
+    }
+
+    private UserDomain newUser(String username) {
+        UserDomain user = new UserDomain();
+        user.setUsername(username);
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+}
@@ -2,16 +2,22 @@ package org.lumbi.ejercicio.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
+import org.lumbi.ejercicio.domain.BookDomain;
 import org.lumbi.ejercicio.domain.UserDomain;
+import org.lumbi.ejercicio.dto.UserBookSummary;
+import org.lumbi.ejercicio.dto.UserSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 
 @DataJpaTest
 class UserRepositoryIntegrationTest {
@@ -19,6 +25,9 @@ class UserRepositoryIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BookRepository bookRepository;
+
     @Test
     void save_assignsId_and_findByIdFunciona() {
         UserDomain user = new UserDomain();
@@ -49,6 +58,38 @@ class UserRepositoryIntegrationTest {
         assertTrue(exists, "existsByUsername debe devolver true para un username ya guardado");
     }
 
+    @Test
+    void findSnapshot_devuelveIdYUsernameSinContraseña() {
+        UserDomain user = new UserDomain();
+        user.setUsername("usuario_snapshot");
+        user.setPassword("secret");
+        UserDomain saved = userRepository.save(user);
+
+        UserSnapshot expected = new UserSnapshot(saved.getId(), "usuario_snapshot");
+        assertEquals(Optional.of(expected), userRepository.findSnapshotById(saved.getId()));
+        assertEquals(Optional.of(expected), userRepository.findSnapshotByUsername("usuario_snapshot"));
+        assertTrue(userRepository.findSnapshotByUsername("no_existe").isEmpty());
+    }
+
+    @Test
+    void streamAllUsernames_and_usernameUnico() {
+        UserDomain user = new UserDomain();
+        user.setUsername("usuario_unico");
+        user.setPassword("secret");
+        userRepository.saveAndFlush(user);
+
+        try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+            assertTrue(usernames.anyMatch("usuario_unico"::equals),
+                    "streamAllUsernames debe recorrer los usernames guardados");
+        }
+
+        UserDomain duplicate = new UserDomain();
+        duplicate.setUsername("usuario_unico");
+        duplicate.setPassword("otro");
+        assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAndFlush(duplicate),
+                "La restricción única de username debe rechazar el duplicado");
+    }
+
     @Test
     void findByUsernameContainingIgnoreCase_busquedaParcial_sensibleACasoNo() {
         UserDomain u1 = new UserDomain();
@@ -67,4 +108,33 @@ class UserRepositoryIntegrationTest {
         assertTrue(contieneUsuarioPrueba,
                 "La lista de resultados debe contener 'UsuarioPrueba' independientemente del case");
     }
+
+    @Test
+    void summarizeBooksByIdIn_cuentaSinCargarLosLibros() {
+        UserDomain conLibros = new UserDomain();
+        conLibros.setUsername("con_libros");
+        conLibros.setPassword("x");
+        userRepository.save(conLibros);
+
+        UserDomain sinLibros = new UserDomain();
+        sinLibros.setUsername("sin_libros");
+        sinLibros.setPassword("x");
+        userRepository.save(sinLibros);
+
+        for (int i = 0; i < 3; i++) {
+            BookDomain book = new BookDomain();
+            book.setISBN("RESUMEN-" + i);
+            book.setBookName("Libro " + i);
+            book.setPublishYear(2000 + i);
+            book.setAddedBy(conLibros);
+            bookRepository.save(book);
+        }
+
+        List<UserBookSummary> summary = userRepository.summarizeBooksByIdIn(List.of(conLibros.getId(), sinLibros.getId()));
+
+        assertEquals(List.of(
+                new UserBookSummary(conLibros.getId(), "con_libros", 3),
+                new UserBookSummary(sinLibros.getId(), "sin_libros", 0)), summary,
+                "Cada usuario debe aparecer con su número de libros, incluidos los que no tienen ninguno");
+    }
 }
@@ -0,0 +1,63 @@
+package org.lumbi.ejercicio.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.lumbi.ejercicio.config.PasswordHashingProperties;
+import org.lumbi.ejercicio.security.Argon2Calibrator.Argon2Settings;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.util.unit.DataSize;
+
+class Argon2CalibratorUnitTest {
+
+    @Test
+    void calibrate_keepsIterationsWithinBoundsAndParallelismAtOne() {
+        Argon2Settings tight = Argon2Calibrator.calibrate(Argon2Calibrator.MIN_MEMORY_KIB, Duration.ofNanos(1));
+        assertEquals(Argon2Calibrator.MIN_MEMORY_KIB, tight.memoryKib(), "La memoria no baja del mínimo");
+        assertEquals(5, tight.iterations(), "Con 7 MiB OWASP exige al menos 5 iteraciones");
+        assertEquals(1, tight.parallelism());
+
+        Argon2Settings generous = Argon2Calibrator.calibrate(Argon2Calibrator.MIN_MEMORY_KIB, Duration.ofMinutes(1));
+        assertEquals(Argon2Calibrator.MIN_MEMORY_KIB, generous.memoryKib(),
+                "Con margen de sobra se mantiene la memoria del presupuesto");
+        assertEquals(Argon2Calibrator.MAX_ITERATIONS, generous.iterations());
+    }
+
+    @Test
+    void calibrate_raisesIterationFloorWhenMemoryIsReduced() {
+        // Presupuesto de 16 MiB y un objetivo imposible: la memoria se reduce
+        // a 8 MiB y las iteraciones no pueden quedar por debajo de 5
+        Argon2Settings reduced = Argon2Calibrator.calibrate(16 * 1024, Duration.ofNanos(1));
+        assertEquals(8 * 1024, reduced.memoryKib());
+        assertEquals(5, reduced.iterations());
+    }
+
+    @Test
+    void minIterations_followsOwaspEquivalentPairs() {
+        assertEquals(5, Argon2Calibrator.minIterations(7 * 1024));
+        assertEquals(5, Argon2Calibrator.minIterations(8 * 1024));
+        assertEquals(4, Argon2Calibrator.minIterations(9 * 1024));
+        assertEquals(3, Argon2Calibrator.minIterations(12 * 1024));
+        assertEquals(2, Argon2Calibrator.minIterations(19 * 1024));
+        assertEquals(Argon2Calibrator.MIN_ITERATIONS, Argon2Calibrator.minIterations(64 * 1024),
+                "Con mucha memoria se mantiene el mínimo general");
+    }
+
+    @Test
+    void resolve_withoutCalibration_usesConfiguredParameters() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setCalibrate(false);
+        properties.setMemory(DataSize.ofMegabytes(8));
+        properties.setIterations(3);
+
+        Argon2Settings settings = Argon2Calibrator.resolve(properties);
+
+        assertEquals(new Argon2Settings(8192, 3, 1), settings);
+        Argon2PasswordEncoder encoder = settings.toEncoder();
+        String weaker = new Argon2PasswordEncoder(16, 32, 1, 8192, 2).encode("secreto");
+        assertTrue(encoder.upgradeEncoding(weaker), "Un hash con menos iteraciones debe rehacerse");
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secreto")));
+    }
+}
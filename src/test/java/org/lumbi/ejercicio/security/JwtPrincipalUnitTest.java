@@ -0,0 +1,48 @@
+package org.lumbi.ejercicio.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.lumbi.ejercicio.config.JwtProperties;
+
+class JwtPrincipalUnitTest {
+
+    private final JwtTokenProvider provider = provider();
+
+    @Test
+    void fromClaims_readsUserIdAndRolesFromVerifiedToken() {
+        String token = provider.generateToken("lector", Map.of("userId", 42L, "role", "USER"));
+
+        JwtPrincipal principal = JwtPrincipal.fromClaims(provider.parseToken(token));
+
+        assertEquals(new JwtPrincipal(42L, "lector", List.of("USER")), principal);
+        assertEquals("lector", principal.getName());
+
+        JwtAuthenticationToken authentication = new JwtAuthenticationToken(principal, token);
+        assertSame(principal, authentication.getPrincipal());
+        assertEquals("lector", authentication.getName(), "El nombre de la autenticación sigue siendo el username");
+        assertEquals("ROLE_USER", authentication.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void fromClaims_withoutUserId_leavesItNull() {
+        String token = provider.generateToken("antiguo", Map.of());
+
+        JwtPrincipal principal = JwtPrincipal.fromClaims(provider.parseToken(token));
+
+        assertNull(principal.userId(), "Sin claim userId no se puede asociar el usuario sin consultarlo");
+        assertTrue(principal.roles().isEmpty());
+    }
+
+    private static JwtTokenProvider provider() {
+        JwtProperties properties = new JwtProperties();
+        properties.setJwtSecret("xuwWmbISca4EfVJMjNuo9O9NLfnqAqCSmLLUj3leXME=");
+        properties.setJwtExpiration(Duration.ofHours(1));
+        properties.setTokenPrefix("Bearer");
+        return new JwtTokenProvider(properties);
+    }
+}
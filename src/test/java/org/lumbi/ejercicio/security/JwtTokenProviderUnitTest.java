@@ -0,0 +1,54 @@
+package org.lumbi.ejercicio.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.lumbi.ejercicio.config.JwtProperties;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+
+class JwtTokenProviderUnitTest {
+
+    @Test
+    void parseToken_reusesVerifiedClaimsUntilExpiration() {
+        JwtTokenProvider provider = provider(Duration.ofHours(1));
+        String token = provider.generateToken("lector", Map.of("role", "USER"));
+
+        Claims first = provider.parseToken(token);
+        Claims second = provider.parseToken(token);
+
+        assertEquals("lector", first.getSubject());
+        assertEquals("USER", first.get("role"));
+        assertSame(first, second, "Un token ya verificado debe salir de la caché");
+        assertEquals("lector", provider.getUsernameFromToken(token));
+    }
+
+    @Test
+    void verifyToken_rejectsTamperedAndExpiredTokens() {
+        JwtTokenProvider provider = provider(Duration.ofHours(1));
+        String token = provider.generateToken("lector", Map.of());
+        provider.parseToken(token);
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertTrue(provider.verifyToken(tampered).isEmpty(), "Un token manipulado no es válido");
+        assertFalse(provider.validateToken(null));
+
+        JwtTokenProvider expiring = provider(Duration.ofSeconds(-1));
+        String expired = expiring.generateToken("lector", Map.of());
+        assertFalse(expiring.validateToken(expired), "Un token expirado no es válido");
+        assertThrows(JwtException.class, () -> expiring.parseToken(expired));
+    }
+
+    private static JwtTokenProvider provider(Duration expiration) {
+        JwtProperties properties = new JwtProperties();
+        properties.setJwtSecret("xuwWmbISca4EfVJMjNuo9O9NLfnqAqCSmLLUj3leXME=");
+        properties.setJwtExpiration(expiration);
+        properties.setTokenPrefix("Bearer");
+        return new JwtTokenProvider(properties);
+    }
+}
@@ -0,0 +1,85 @@
+package org.lumbi.ejercicio.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lumbi.ejercicio.config.LoginRateLimitProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginRateLimiterUnitTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        LoginRateLimitProperties properties = new LoginRateLimitProperties();
+        properties.setUsernameBurst(3);
+        properties.setUsernameInterval(Duration.ofSeconds(10));
+        properties.setIpBurst(5);
+        properties.setIpInterval(Duration.ofSeconds(1));
+        properties.setMaxPenalty(Duration.ofMinutes(1));
+        limiter = new LoginRateLimiter(properties, registry, nanos::get);
+    }
+
+    @Test
+    void tryAcquire_allowsBurstPerUsernameThenAsksToWait() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("Ana", "10.0.0." + i).isEmpty(), "La ráfaga inicial se permite");
+        }
+
+        Optional<Duration> wait = limiter.tryAcquire("ana", "10.0.0.9");
+        assertEquals(Optional.of(Duration.ofSeconds(10)), wait,
+                "El usuario se normaliza y debe esperar un intervalo");
+        assertEquals(1.0, registry.get("login.throttled").tag("scope", "username").counter().count());
+
+        advance(Duration.ofSeconds(10));
+        assertTrue(limiter.tryAcquire("ana", "10.0.0.9").isEmpty(), "Pasado el intervalo se recupera un intento");
+    }
+
+    @Test
+    void tryAcquire_limitsEachIpAcrossUsernames() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("usuario" + i, "10.0.0.1").isEmpty());
+        }
+        assertTrue(limiter.tryAcquire("otro", "10.0.0.1").isPresent(), "La IP ha agotado su ráfaga");
+        assertTrue(limiter.tryAcquire("otro", "10.0.0.2").isEmpty(), "Otra IP no se ve afectada");
+        assertEquals(1.0, registry.get("login.throttled").tag("scope", "ip").counter().count());
+    }
+
+    @Test
+    void onFailure_addsGrowingPenaltiesUntilSuccess() {
+        assertTrue(limiter.tryAcquire("ana", "10.0.0.1").isEmpty());
+        limiter.onFailure("ana");
+        assertTrue(limiter.tryAcquire("ana", "10.0.0.1").isEmpty());
+        limiter.onFailure("ana");
+
+        assertEquals(Optional.of(Duration.ofSeconds(10)), limiter.tryAcquire("ana", "10.0.0.1"),
+                "El segundo fallo seguido añade un intervalo de espera");
+
+        advance(Duration.ofSeconds(10));
+        assertTrue(limiter.tryAcquire("ana", "10.0.0.1").isEmpty());
+        limiter.onFailure("ana");
+        assertEquals(Optional.of(Duration.ofSeconds(40)), limiter.tryAcquire("ana", "10.0.0.1"),
+                "El tercer fallo seguido añade tres intervalos más");
+
+        advance(Duration.ofSeconds(40));
+        assertTrue(limiter.tryAcquire("ana", "10.0.0.1").isEmpty());
+        limiter.onSuccess("ana");
+        advance(Duration.ofSeconds(30));
+        limiter.onFailure("ana");
+        assertTrue(limiter.tryAcquire("ana", "10.0.0.1").isEmpty(),
+                "Tras un login correcto el siguiente fallo no penaliza");
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,46 @@
+package org.lumbi.ejercicio.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lumbi.ejercicio.config.JwtProperties;
+
+class TokenRevocationListUnitTest {
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setRevocationMaxEntries(2);
+        revocationList = new TokenRevocationList(properties);
+    }
+
+    @Test
+    void isRevoked_onlyForRevokedJti() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+
+        assertTrue(revocationList.revoke("jti-1", expiresAt));
+
+        assertTrue(revocationList.isRevoked("jti-1", expiresAt));
+        assertFalse(revocationList.isRevoked("jti-2", expiresAt), "Los demás tokens siguen siendo válidos");
+        assertFalse(revocationList.isRevoked(null, expiresAt), "Un token sin jti no se puede revocar");
+        assertEquals(1, revocationList.size());
+    }
+
+    @Test
+    void revoke_isBoundedAndIgnoresExpiredTokens() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+
+        assertTrue(revocationList.revoke("expirado", Instant.now().minusSeconds(120)));
+        assertEquals(0, revocationList.size(), "Un token expirado no necesita revocarse");
+
+        assertTrue(revocationList.revoke("jti-1", expiresAt));
+        assertTrue(revocationList.revoke("jti-2", expiresAt));
+        assertFalse(revocationList.revoke("jti-3", expiresAt), "La lista no debe crecer por encima del máximo");
+        assertFalse(revocationList.isRevoked("jti-3", expiresAt));
+    }
+}
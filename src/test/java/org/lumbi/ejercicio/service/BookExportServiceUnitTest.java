@@ -0,0 +1,76 @@
+package org.lumbi.ejercicio.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lumbi.ejercicio.domain.BookDomain;
+import org.lumbi.ejercicio.repository.BookRepository;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class BookExportServiceUnitTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private BookExportService bookExportService;
+
+    @BeforeEach
+    void setUp() {
+        bookExportService = new BookExportService(bookRepository, entityManager, objectMapper);
+    }
+
+    @Test
+    void exportNdjson_writesOneJsonObjectPerLine() throws Exception {
+        when(bookRepository.streamAllForExport()).thenReturn(Stream.of(book("ISBN-1", "Uno"), book("ISBN-2", "Dos")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = bookExportService.exportNdjson(out);
+
+        assertEquals(2, exported);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length, "Debe haber exactamente una línea por libro");
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("ISBN-1", first.get("isbn").asText());
+        assertEquals("Dos", objectMapper.readTree(lines[1]).get("bookName").asText());
+    }
+
+    @Test
+    void exportNdjson_clearsPersistenceContextOncePerChunk() throws Exception {
+        int total = BookExportService.CHUNK_SIZE * 2 + 1;
+        when(bookRepository.streamAllForExport())
+                .thenReturn(IntStream.range(0, total).mapToObj(i -> book("ISBN-" + i, "Libro " + i)));
+
+        long exported = bookExportService.exportNdjson(new ByteArrayOutputStream());
+
+        assertEquals(total, exported);
+        verify(entityManager, times(2)).clear();
+    }
+
+    private BookDomain book(String isbn, String name) {
+        BookDomain book = new BookDomain();
+        book.setISBN(isbn);
+        book.setBookName(name);
+        book.setPublishYear(2020);
+        return book;
+    }
+}
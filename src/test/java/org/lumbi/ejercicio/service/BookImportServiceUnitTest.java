@@ -0,0 +1,151 @@
+package org.lumbi.ejercicio.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lumbi.ejercicio.config.BookProperties;
+import org.lumbi.ejercicio.dto.BookBatchResult;
+import org.lumbi.ejercicio.dto.BookImportStatus;
+import org.lumbi.ejercicio.dto.BookRequestDTO;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceUnitTest {
+
+    private static final Long OWNER = 1L;
+
+    @Mock
+    private BookService bookService;
+
+    private BookProperties properties;
+    private BookImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BookProperties();
+        properties.setImportChunkSize(2);
+        // El ejecutor síncrono hace que submit termine el trabajo antes de volver
+        importService = new BookImportService(bookService, new ObjectMapper(), properties, Runnable::run);
+    }
+
+    @Test
+    void submit_csv_savesInChunksAndReportsRejectedRows() throws Exception {
+        when(bookService.saveBooks(anyList())).thenAnswer(invocation -> createdAll(invocation.getArgument(0)));
+        String csv = """
+                isbn,bookname,publish_year,addedById
+                ISBN-1,"Libro, con coma",2001,1
+                ISBN-2,Segundo,no-es-año,1
+                ISBN-3,Tercero,2003,1
+                ISBN-4,Cuarto,2004,1
+                """;
+
+        BookImportStatus status = importService.submit(upload(csv, "text/csv", "libros.csv"), OWNER).orElseThrow();
+
+        assertEquals("COMPLETED", status.status(), "Con un ejecutor síncrono el trabajo ya ha terminado");
+        assertEquals(4, status.processed());
+        assertEquals(3, status.created());
+        assertEquals(1, status.rejected());
+        assertEquals(3, status.rejections().get(0).row(), "Se informa la línea del fichero rechazada");
+        verify(bookService, times(2)).saveBooks(anyList());
+        assertEquals(status, importService.getStatus(status.id()).orElseThrow(), "El estado debe poder consultarse");
+    }
+
+    @Test
+    void submit_json_rejectsInvalidItemsWithoutStopping() throws Exception {
+        when(bookService.saveBooks(anyList())).thenAnswer(invocation -> createdAll(invocation.getArgument(0)));
+        String json = """
+                [
+                  {"isbn": "ISBN-1", "bookname": "Uno", "publish_year": 2001, "addedById": 1},
+                  {"isbn": "ISBN-2", "bookname": "Dos", "publish_year": "no-es-año", "addedById": 1},
+                  42,
+                  {"isbn": "ISBN-3", "bookname": "Tres", "publish_year": 2003, "addedById": 1}
+                ]
+                """;
+
+        BookImportStatus status = importService.submit(upload(json, "application/json", "libros.json"), OWNER)
+                .orElseThrow();
+
+        assertEquals("COMPLETED", status.status());
+        assertEquals(2, status.created());
+        assertEquals(List.of(2L, 3L), status.rejections().stream().map(BookImportStatus.Rejection::row).toList());
+    }
+
+    @Test
+    void submit_rejectsRowsOwnedByAnotherUserAndAssignsTheUploader() throws Exception {
+        List<Long> owners = new ArrayList<>();
+        when(bookService.saveBooks(anyList())).thenAnswer(invocation -> {
+            List<BookRequestDTO> books = invocation.getArgument(0);
+            books.forEach(book -> owners.add(book.getAddedById()));
+            return createdAll(books);
+        });
+        String csv = """
+                isbn,bookname,publish_year,addedById
+                ISBN-1,Uno,2001,
+                ISBN-2,Dos,2002,2
+                """;
+
+        BookImportStatus status = importService.submit(upload(csv, "text/csv", "libros.csv"), OWNER).orElseThrow();
+
+        assertEquals(1, status.created());
+        assertEquals(List.of(3L), status.rejections().stream().map(BookImportStatus.Rejection::row).toList(),
+                "La fila de otro usuario debe rechazarse");
+        assertEquals(List.of(OWNER), owners, "Sin addedById se asigna el usuario que importa");
+    }
+
+    @Test
+    void submit_csvWithoutRequiredColumns_failsTheJob() throws Exception {
+        BookImportStatus status = importService.submit(upload("isbn,titulo\nA,B\n", "text/csv", null), OWNER)
+                .orElseThrow();
+
+        assertEquals("FAILED", status.status());
+        assertNotNull(status.error());
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void submit_unknownFormat_isNotAccepted() throws Exception {
+        assertTrue(importService.submit(upload("x", "text/plain", "libros.txt"), OWNER).isEmpty());
+    }
+
+    @Test
+    void submit_whenQueueIsFull_rejectsWithRetryAfter() {
+        properties.setImportRetryAfter(Duration.ofSeconds(45));
+        importService = new BookImportService(bookService, new ObjectMapper(), properties, command -> {
+            throw new RejectedExecutionException();
+        });
+
+        BookImportUnavailableException ex = assertThrows(BookImportUnavailableException.class,
+                () -> importService.submit(upload("isbn,bookname,publish_year,addedById\n", "text/csv", "a.csv"),
+                        OWNER));
+        assertEquals(Duration.ofSeconds(45), ex.getRetryAfter());
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void splitCsvLine_handlesQuotedFields() {
+        assertEquals(List.of("a", "b, c", "d \"e\"", ""), BookImportService.splitCsvLine("a,\"b, c\",\"d \"\"e\"\"\","));
+    }
+
+    private static List<BookBatchResult> createdAll(List<BookRequestDTO> books) {
+        return IntStream.range(0, books.size()).mapToObj(i -> BookBatchResult.created(i, (long) i)).toList();
+    }
+
+    private static MockMultipartFile upload(String content, String contentType, String filename) {
+        return new MockMultipartFile("file", filename, contentType, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,118 @@
+package org.lumbi.ejercicio.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lumbi.ejercicio.config.BookProperties;
+import org.lumbi.ejercicio.dto.BookResponseDTO;
+import org.lumbi.ejercicio.service.BookResponseCache.CachedResponse;
+import org.lumbi.ejercicio.service.BookResponseCache.ResponseKey;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BookResponseCacheUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private BookResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BookResponseCache(objectMapper, new MappingJackson2CborHttpMessageConverter(),
+                new MappingJackson2SmileHttpMessageConverter(), new BookProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void get_returnsEncodedBodyOnlyWhileEtagMatches() throws IOException {
+        ResponseKey key = ResponseKey.forBook(1L, MediaType.APPLICATION_JSON);
+        cache.put(key, "W/\"b1-a\"", new HttpHeaders(), book(1L), cache.generation());
+
+        Optional<CachedResponse> cached = cache.get(key, "W/\"b1-a\"");
+        assertTrue(cached.isPresent());
+        assertEquals(book(1L), objectMapper.readValue(cached.get().body(), BookResponseDTO.class));
+        assertEquals(MediaType.APPLICATION_JSON, cached.get().headers().getContentType());
+        assertEquals("W/\"b1-a\"", cached.get().headers().getETag(), "El ETag débil se envía tal cual");
+        assertEquals(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING),
+                cached.get().toResponse(null).getHeaders().getVary());
+
+        assertTrue(cache.get(key, "W/\"b1-b\"").isEmpty(), "Una entrada con otro ETag está obsoleta");
+        assertTrue(cache.get(key, "W/\"b1-a\"").isEmpty(), "La entrada obsoleta debe eliminarse");
+    }
+
+    @Test
+    void put_doesNotStoreResultsReadBeforeAnInvalidation() {
+        ResponseKey key = ResponseKey.forBook(1L, MediaType.APPLICATION_JSON);
+        long generation = cache.generation();
+        cache.onBookChanged(BookChangedEvent.saved(1L));
+
+        CachedResponse response = cache.put(key, "b1-a", new HttpHeaders(), book(1L), generation);
+
+        assertNotNull(response.body(), "La respuesta se codifica igualmente");
+        assertTrue(cache.get(key, "b1-a").isEmpty());
+    }
+
+    @Test
+    void onBookChanged_evictsChangedBooksAndAllLists() {
+        ResponseKey changed = ResponseKey.forBook(1L, MediaType.APPLICATION_CBOR);
+        ResponseKey untouched = ResponseKey.forBook(2L, MediaType.APPLICATION_CBOR);
+        ResponseKey list = ResponseKey.forList("search:10:gran", MediaType.APPLICATION_JSON);
+        cache.put(changed, "b1-a", new HttpHeaders(), book(1L), cache.generation());
+        cache.put(untouched, "b2-a", new HttpHeaders(), book(2L), cache.generation());
+        cache.put(list, "l2-a", new HttpHeaders(), List.of(book(1L), book(2L)), cache.generation());
+
+        cache.onBookChanged(BookChangedEvent.deleted(1L));
+
+        assertTrue(cache.get(changed, "b1-a").isEmpty());
+        assertTrue(cache.get(list, "l2-a").isEmpty(), "Las listas pueden incluir el libro modificado");
+        assertTrue(cache.get(untouched, "b2-a").isPresent());
+    }
+
+    @Test
+    void toResponse_servesPrecompressedBodyWhenClientAcceptsGzip() throws IOException {
+        List<BookResponseDTO> books = Collections.nCopies(50, book(1L));
+        CachedResponse cached = cache.put(ResponseKey.forList("page", MediaType.APPLICATION_JSON), "l1-a",
+                new HttpHeaders(), books, cache.generation());
+        assertNotNull(cached.gzipped(), "Una lista grande debe guardarse también comprimida");
+
+        ResponseEntity<byte[]> gzipped = cached.toResponse("br, gzip;q=0.8");
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertArrayEquals(cached.body(), in.readAllBytes());
+        }
+
+        ResponseEntity<byte[]> plain = cached.toResponse("gzip;q=0");
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(cached.body(), plain.getBody());
+    }
+
+    @Test
+    void negotiate_picksPreferredCachedRepresentation() {
+        assertEquals(Optional.of(MediaType.APPLICATION_JSON), cache.negotiate(null));
+        assertEquals(Optional.of(MediaType.APPLICATION_JSON), cache.negotiate("*/*"));
+        assertEquals(Optional.of(MediaType.APPLICATION_CBOR),
+                cache.negotiate("application/json;q=0.5, application/cbor"));
+        assertEquals(Optional.of(BookResponseCache.APPLICATION_SMILE), cache.negotiate("application/x-jackson-smile"));
+        assertTrue(cache.negotiate("text/html").isEmpty(), "Los demás tipos se dejan a Spring MVC");
+    }
+
+    private static BookResponseDTO book(Long id) {
+        Instant now = Instant.parse("2024-01-01T00:00:00Z");
+        return new BookResponseDTO(id, "978-84-000-000" + id, "Libro " + id, 2020, 1L, "autor", now, now);
+    }
+}
@@ -0,0 +1,119 @@
+package org.lumbi.ejercicio.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lumbi.ejercicio.dto.BookResponseDTO;
+import org.lumbi.ejercicio.repository.BookRepository;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchIndexUnitTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex(bookRepository);
+        index.put(1L, "El Gran Libro", "978-84-000-0001-1");
+        index.put(2L, "gran viaje", "978-84-000-0002-8");
+        index.put(3L, "Canción de hielo", "978-84-000-0003-5");
+    }
+
+    @Test
+    void search_substringIgnoresCaseAndAccents() {
+        assertEquals(List.of(2L, 1L), index.search("GRAN", 10),
+                "Ambos títulos contienen 'gran'; el más corto debe ir primero a igual puntuación");
+        assertEquals(List.of(3L), index.search("cancion", 10), "La búsqueda debe ignorar las tildes");
+        assertEquals(List.of(3L), index.search("ANCI", 10), "Debe encontrar subcadenas en mitad de palabra");
+    }
+
+    @Test
+    void search_matchesIsbnWithOrWithoutHyphens() {
+        assertEquals(List.of(2L), index.search("9788400000028", 10));
+        assertEquals(List.of(2L), index.search("978-84-000-0002", 10));
+    }
+
+    @Test
+    void search_requiresAllTermsAndRespectsLimit() {
+        assertEquals(List.of(1L), index.search("gran libro", 10), "Todos los términos deben aparecer");
+        assertEquals(1, index.search("gran", 1).size(), "No se deben devolver más resultados que el límite");
+        assertTrue(index.search("x", 10).isEmpty(), "Los términos de un carácter se ignoran");
+    }
+
+    @Test
+    void put_and_remove_updateTheIndexIncrementally() {
+        index.put(1L, "Otro título", "978-84-000-0001-1");
+        assertEquals(List.of(2L), index.search("gran", 10), "El nombre antiguo ya no debe encontrarse");
+        assertEquals(List.of(1L), index.search("otro", 10));
+
+        index.remove(2L);
+        assertTrue(index.search("gran", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void put_reindexingWithSharedTrigramsKeepsTheBookFindable() {
+        index.put(1L, "El Gran Libro II", "978-84-000-0001-1");
+        index.put(1L, "El Gran Libro II", "978-84-000-0001-1");
+
+        assertEquals(List.of(1L), index.search("gran libro", 10), "Los trigramas comunes deben seguir enlazados");
+        assertEquals(List.of(1L), index.search("libro ii", 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void rebuild_replacesTheIndexWithTheRepositoryContents() {
+        when(bookRepository.streamAllViews()).thenReturn(Stream.of(
+                new BookResponseDTO(7L, "ISBN-7", "Gran enciclopedia", 2001, 1L, "autor", Instant.EPOCH, Instant.EPOCH),
+                new BookResponseDTO(5L, "ISBN-5", "Gran atlas", 1999, 1L, "autor", Instant.EPOCH, Instant.EPOCH)));
+
+        index.rebuild();
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(5L, 7L), index.search("gran", 10));
+        assertTrue(index.search("cancion", 10).isEmpty(), "Los libros anteriores no deben quedar en el índice");
+    }
+
+    @Test
+    void onBookChanged_reindexesSavedBooksFromRepository() {
+        when(bookRepository.findViewsByIdIn(List.of(4L))).thenReturn(List.of(
+                new BookResponseDTO(4L, "ISBN-4", "Nuevo libro", 2024, 1L, "autor", Instant.EPOCH, Instant.EPOCH)));
+
+        index.onBookChanged(BookChangedEvent.saved(4L));
+        assertEquals(List.of(4L), index.search("nuevo", 10));
+
+        index.onBookChanged(BookChangedEvent.deleted(4L));
+        assertTrue(index.search("nuevo", 10).isEmpty());
+    }
+
+    @Test
+    void onBookChanged_ignoresUpdatesThatKeepNameAndIsbn() {
+        index.onBookChanged(BookChangedEvent.bulk(BookChangedEvent.ChangeType.UPDATED));
+
+        verifyNoInteractions(bookRepository);
+        assertEquals(List.of(2L, 1L), index.search("gran", 10));
+    }
+
+    @Test
+    void onBookChanged_bulkDelete_removesBooksThatNoLongerExist() {
+        when(bookRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L, 3L));
+
+        index.onBookChanged(BookChangedEvent.bulk(BookChangedEvent.ChangeType.DELETED));
+
+        assertEquals(List.of(1L), index.search("gran", 10), "Los libros borrados en bloque deben salir del índice");
+        assertEquals(2, index.size());
+        verify(bookRepository, times(1)).findExistingIds(anyCollection());
+    }
+}
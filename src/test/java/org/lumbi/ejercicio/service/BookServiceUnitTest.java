@@ -4,17 +4,37 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.lumbi.ejercicio.config.BookProperties;
 import org.lumbi.ejercicio.domain.BookDomain;
+import org.lumbi.ejercicio.domain.UserDomain;
+import org.lumbi.ejercicio.dto.BookBatchResult;
+import org.lumbi.ejercicio.dto.BookBulkFilter;
+import org.lumbi.ejercicio.dto.BookBulkUpdateRequest;
+import org.lumbi.ejercicio.dto.BookCursor;
+import org.lumbi.ejercicio.dto.BookPage;
+import org.lumbi.ejercicio.dto.BookRequestDTO;
+import org.lumbi.ejercicio.dto.BookResponseDTO;
+import org.lumbi.ejercicio.dto.BookSort;
 import org.lumbi.ejercicio.repository.BookRepository;
+import org.lumbi.ejercicio.repository.UserRepository;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 
 @ExtendWith(MockitoExtension.class)
 class BookServiceUnitTest {
@@ -22,37 +42,57 @@ class BookServiceUnitTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private BookProperties bookProperties = new BookProperties();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private IsbnLookupCache isbnLookupCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookService bookService;
 
     @Test
     void getAllBooks_returnsListFromRepository() {
-        BookDomain b1 = mock(BookDomain.class);
-        BookDomain b2 = mock(BookDomain.class);
+        BookResponseDTO b1 = view(1L, "Uno");
+        BookResponseDTO b2 = view(2L, "Dos");
 
-        when(bookRepository.findAll()).thenReturn(List.of(b1, b2));
+        when(bookRepository.findAllViews()).thenReturn(List.of(b1, b2));
 
-        List<BookDomain> result = bookService.getAllBooks();
+        List<BookResponseDTO> result = bookService.getAllBooks();
 
         assertNotNull(result);
         assertEquals(2, result.size());
         assertSame(b1, result.get(0));
         assertSame(b2, result.get(1));
-        verify(bookRepository, times(1)).findAll();
+        verify(bookRepository, times(1)).findAllViews();
+        verify(bookRepository, never()).findAll();
     }
 
     @Test
     void getBookById_whenFound_returnsOptionalWithBook() {
         Long id = 5L;
-        BookDomain book = mock(BookDomain.class);
+        BookResponseDTO book = view(id, "Cinco");
 
-        when(bookRepository.findById(id)).thenReturn(Optional.of(book));
+        when(bookRepository.findViewById(id)).thenReturn(Optional.of(book));
 
-        Optional<BookDomain> result = bookService.getBookById(id);
+        Optional<BookResponseDTO> result = bookService.getBookById(id);
 
         assertTrue(result.isPresent());
         assertSame(book, result.get());
-        verify(bookRepository, times(1)).findById(id);
+        verify(bookRepository, times(1)).findViewById(id);
+        verify(bookRepository, never()).findById(any());
     }
 
     @Test
@@ -122,6 +162,7 @@ class BookServiceUnitTest {
     void deleteBook_whenExists_deletesAndReturnsTrue() {
         Long id = 7L;
         BookDomain book = mock(BookDomain.class);
+        when(book.getIsbn13()).thenReturn(9780306406157L);
         when(bookRepository.findById(id)).thenReturn(Optional.of(book));
 
         boolean result = bookService.deleteBook(id);
@@ -129,6 +170,7 @@ class BookServiceUnitTest {
         assertTrue(result);
         verify(bookRepository, times(1)).findById(id);
         verify(bookRepository, times(1)).delete(book);
+        verify(eventPublisher, times(1)).publishEvent(BookChangedEvent.deleted(id, 9780306406157L));
     }
 
     @Test
@@ -141,5 +183,183 @@ class BookServiceUnitTest {
         assertFalse(result);
         verify(bookRepository, times(1)).findById(id);
         verify(bookRepository, never()).delete(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void getBooksPage_whenMoreRowsThanPageSize_returnsNextCursorFromLastItem() {
+        BookResponseDTO b1 = view(11L, "Once");
+        BookResponseDTO b2 = view(12L, "Doce");
+        BookResponseDTO b3 = view(13L, "Trece");
+
+        ArgumentCaptor<Pageable> limitCaptor = ArgumentCaptor.forClass(Pageable.class);
+        when(bookRepository.findPageAfterId(eq(10L), limitCaptor.capture())).thenReturn(List.of(b1, b2, b3));
+
+        BookPage page = bookService.getBooksPage(new BookCursor(BookSort.ID, "", 10L), 2);
+
+        assertEquals(2, page.items().size(), "La página no debe superar el tamaño solicitado");
+        assertEquals(3, limitCaptor.getValue().getPageSize(), "Se debe pedir una fila extra para detectar la siguiente página");
+        assertEquals(0, limitCaptor.getValue().getOffset(), "La paginación por cursor nunca usa OFFSET");
+        assertTrue(page.next().isPresent());
+        assertEquals(12L, page.next().get().lastId(), "El cursor debe apuntar al último libro devuelto");
+    }
+
+    @Test
+    void getBooksPage_whenLastPage_returnsNoCursor() {
+        BookResponseDTO b1 = view(1L, "Alfa");
+        when(bookRepository.findPageAfterBookname(eq(""), eq(0L), any(Pageable.class))).thenReturn(List.of(b1));
+
+        BookPage page = bookService.getBooksPage(BookCursor.first(BookSort.BOOKNAME), 5);
+
+        assertEquals(1, page.items().size());
+        assertTrue(page.next().isEmpty(), "La última página no debe tener cursor siguiente");
+    }
+
+    @Test
+    void resolvePageSize_clampsToConfiguredBounds() {
+        assertEquals(bookProperties.getDefaultPageSize(), bookService.resolvePageSize(0));
+        assertEquals(bookProperties.getMaxPageSize(), bookService.resolvePageSize(10_000));
+        assertEquals(7, bookService.resolvePageSize(7));
+    }
+
+    @Test
+    void searchBooks_returnsViewsInIndexRankingOrder() {
+        when(bookSearchIndex.search("gran", 20)).thenReturn(List.of(3L, 1L));
+        when(bookRepository.findViewsByIdIn(List.of(3L, 1L))).thenReturn(List.of(view(1L, "gran viaje"), view(3L, "Gran")));
+
+        List<BookResponseDTO> result = bookService.searchBooks("gran", 0);
+
+        assertEquals(List.of(3L, 1L), result.stream().map(BookResponseDTO::id).toList(),
+                "Los resultados deben respetar el orden de relevancia del índice");
+    }
+
+    @Test
+    void searchBooks_whenNoMatches_doesNotQueryDatabase() {
+        when(bookSearchIndex.search(anyString(), anyInt())).thenReturn(List.of());
+
+        assertTrue(bookService.searchBooks("nada", 5).isEmpty());
+        verify(bookRepository, never()).findViewsByIdIn(any());
+    }
+
+    @Test
+    void getBookByIsbn13_whenCached_doesNotQueryDatabase() {
+        BookResponseDTO book = view(8L, "Cacheado");
+        when(isbnLookupCache.get(9780306406157L)).thenReturn(Optional.of(book));
+
+        Optional<BookResponseDTO> result = bookService.getBookByIsbn13(9780306406157L);
+
+        assertSame(book, result.orElseThrow());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void getBookByIsbn13_whenNotCached_queriesIndexAndFillsCache() {
+        BookResponseDTO book = view(9L, "Nuevo");
+        when(isbnLookupCache.get(9780306406157L)).thenReturn(Optional.empty());
+        when(isbnLookupCache.generation()).thenReturn(3L);
+        when(bookRepository.findViewByIsbn13(9780306406157L)).thenReturn(Optional.of(book));
+
+        Optional<BookResponseDTO> result = bookService.getBookByIsbn13(9780306406157L);
+
+        assertSame(book, result.orElseThrow());
+        verify(isbnLookupCache, times(1)).put(9780306406157L, book, 3L);
+    }
+
+    @Test
+    void saveBooks_reportsEachItem_andLooksUpOwnersOnce() {
+        UserDomain owner = mock(UserDomain.class);
+        when(owner.getId()).thenReturn(1L);
+        when(userRepository.findAllById(anySet())).thenReturn(List.of(owner));
+        when(bookRepository.findExistingIsbns(anySet())).thenReturn(List.of("ISBN-EXISTE"));
+        when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BookBatchResult> results = bookService.saveBooks(List.of(
+                request("ISBN-A", "Válido", 1L),
+                request("ISBN-B", "", 1L),
+                request("ISBN-C", "Sin usuario", 2L),
+                request("ISBN-EXISTE", "Ya existe", 1L),
+                request("ISBN-A", "Repetido en el lote", 1L)));
+
+        assertEquals(List.of(BookBatchResult.Status.CREATED, BookBatchResult.Status.INVALID,
+                BookBatchResult.Status.UNKNOWN_USER, BookBatchResult.Status.DUPLICATE_ISBN,
+                BookBatchResult.Status.DUPLICATE_ISBN),
+                results.stream().map(BookBatchResult::status).toList(),
+                "Cada libro debe tener su propio resultado, en el orden de la petición");
+        verify(userRepository, times(1)).findAllById(Set.of(1L, 2L));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BookDomain>> saved = ArgumentCaptor.forClass(List.class);
+        verify(bookRepository, times(1)).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size(), "Solo se debe insertar el libro válido");
+        verify(eventPublisher, times(1)).publishEvent(any(BookChangedEvent.class));
+    }
+
+    @Test
+    void saveBooks_whenNothingValid_doesNotSave() {
+        List<BookBatchResult> results = bookService.saveBooks(List.of(
+                request("", "Sin ISBN", 1L),
+                request("ISBN-X", "Sin propietario", null)));
+
+        assertEquals(BookBatchResult.Status.INVALID, results.get(0).status());
+        assertEquals(BookBatchResult.Status.INVALID, results.get(1).status(),
+                "En los lotes el propietario sigue siendo obligatorio");
+        verifyNoInteractions(userRepository, eventPublisher);
+        verify(bookRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void deleteBooks_deletesWithOneStatementAndPublishesBulkEvent() {
+        BookBulkFilter filter = new BookBulkFilter(null, 3L, null, null);
+        when(bookRepository.deleteMatching(filter)).thenReturn(2);
+
+        assertEquals(2, bookService.deleteBooks(filter));
+        verify(eventPublisher, times(1)).publishEvent(BookChangedEvent.bulk(BookChangedEvent.ChangeType.DELETED));
+        verify(bookRepository, never()).delete(any());
+    }
+
+    @Test
+    void updateBooks_updatesWithOneStatementAndSkipsSearchIndex() {
+        BookBulkFilter filter = new BookBulkFilter(null, null, null, 1999);
+        when(bookRepository.updateMatching(eq(filter), eq(2000), isNull(), any())).thenReturn(1200);
+
+        assertEquals(1200, bookService.updateBooks(new BookBulkUpdateRequest(filter, 2000, null)));
+        verify(bookRepository, times(1)).updateMatching(eq(filter), eq(2000), isNull(), any());
+        verify(eventPublisher, times(1)).publishEvent(BookChangedEvent.bulk(BookChangedEvent.ChangeType.UPDATED));
+    }
+
+    @Test
+    void deleteBooks_whenNothingMatches_publishesNothing() {
+        BookBulkFilter filter = new BookBulkFilter(List.of(99L), null, null, null);
+        when(bookRepository.deleteMatching(filter)).thenReturn(0);
+
+        assertEquals(0, bookService.deleteBooks(filter));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void getBooksByUsers_groupsOneQueryResultByUser() {
+        BookResponseDTO fromFirst = new BookResponseDTO(1L, "ISBN-1", "Uno", 2020, 10L, "a", Instant.EPOCH, Instant.EPOCH);
+        BookResponseDTO fromSecond = new BookResponseDTO(2L, "ISBN-2", "Dos", 2020, 20L, "b", Instant.EPOCH, Instant.EPOCH);
+        when(bookRepository.findViewsByAddedByIdIn(List.of(20L, 10L, 30L))).thenReturn(List.of(fromFirst, fromSecond));
+
+        Map<Long, List<BookResponseDTO>> result = bookService.getBooksByUsers(List.of(20L, 10L, 30L));
+
+        assertEquals(List.of(20L, 10L, 30L), List.copyOf(result.keySet()), "Se respeta el orden de los usuarios pedidos");
+        assertEquals(List.of(fromFirst), result.get(10L));
+        assertEquals(List.of(fromSecond), result.get(20L));
+        assertTrue(result.get(30L).isEmpty(), "Un usuario sin libros tiene una lista vacía");
+        verify(bookRepository, times(1)).findViewsByAddedByIdIn(any());
+    }
+
+    private BookRequestDTO request(String isbn, String name, Long ownerId) {
+        BookRequestDTO request = new BookRequestDTO();
+        request.setIsbn(isbn);
+        request.setBookname(name);
+        request.setPublish_year(2020);
+        request.setAddedById(ownerId);
+        return request;
+    }
+
+    private BookResponseDTO view(Long id, String name) {
+        return new BookResponseDTO(id, "ISBN-" + id, name, 2020, 1L, "autor", Instant.EPOCH, Instant.EPOCH);
     }
-}
\ No newline at end of file
+}
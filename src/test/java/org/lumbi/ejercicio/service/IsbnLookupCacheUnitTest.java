@@ -0,0 +1,60 @@
+package org.lumbi.ejercicio.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lumbi.ejercicio.config.BookProperties;
+import org.lumbi.ejercicio.dto.BookResponseDTO;
+
+class IsbnLookupCacheUnitTest {
+
+    private static final long FIRST_ISBN13 = 9780306406157L;
+    private static final long SECOND_ISBN13 = 9788400000028L;
+
+    private IsbnLookupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new IsbnLookupCache(new BookProperties());
+    }
+
+    @Test
+    void onBookChanged_evictsOnlyTheIsbnsOfTheEvent() {
+        BookResponseDTO first = book(1L, "978-0-306-40615-7");
+        BookResponseDTO second = book(2L, "978-84-000-0002-8");
+        cache.put(FIRST_ISBN13, first, cache.generation());
+        cache.put(SECOND_ISBN13, second, cache.generation());
+
+        cache.onBookChanged(BookChangedEvent.deleted(1L, FIRST_ISBN13));
+
+        assertTrue(cache.get(FIRST_ISBN13).isEmpty());
+        assertEquals(Optional.of(second), cache.get(SECOND_ISBN13), "Los demás ISBN deben seguir en caché");
+    }
+
+    @Test
+    void put_discardsBooksReadBeforeAnInvalidation() {
+        long generation = cache.generation();
+        cache.onBookChanged(BookChangedEvent.saved(1L, FIRST_ISBN13));
+
+        cache.put(FIRST_ISBN13, book(1L, "978-0-306-40615-7"), generation);
+
+        assertTrue(cache.get(FIRST_ISBN13).isEmpty(), "Un libro leído antes del cambio no debe guardarse");
+    }
+
+    @Test
+    void onBookChanged_bulkChangeClearsEverything() {
+        cache.put(FIRST_ISBN13, book(1L, "978-0-306-40615-7"), cache.generation());
+
+        cache.onBookChanged(BookChangedEvent.bulk(BookChangedEvent.ChangeType.UPDATED));
+
+        assertTrue(cache.get(FIRST_ISBN13).isEmpty(), "Un cambio masivo no indica los ISBN afectados");
+    }
+
+    private static BookResponseDTO book(Long id, String isbn) {
+        return new BookResponseDTO(id, isbn, "Libro " + id, 2020, 1L, "autor", Instant.EPOCH, Instant.EPOCH);
+    }
+}
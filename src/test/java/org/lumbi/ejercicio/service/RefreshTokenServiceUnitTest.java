@@ -0,0 +1,60 @@
+package org.lumbi.ejercicio.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lumbi.ejercicio.config.JwtProperties;
+import org.lumbi.ejercicio.domain.RefreshTokenDomain;
+import org.lumbi.ejercicio.domain.UserDomain;
+import org.lumbi.ejercicio.repository.RefreshTokenRepository;
+import org.lumbi.ejercicio.repository.UserRepository;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceUnitTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RefreshTokenDomain stored;
+
+    @Mock
+    private UserDomain owner;
+
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, new JwtProperties());
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("REFRESH")))
+                .thenReturn(Optional.of(stored));
+        when(stored.getUser()).thenReturn(owner);
+        when(owner.getId()).thenReturn(7L);
+    }
+
+    @Test
+    void revoke_consumesTokenOfTheSameUser() {
+        when(stored.getId()).thenReturn(3L);
+        when(refreshTokenRepository.consumeById(3L)).thenReturn(1);
+
+        assertTrue(refreshTokenService.revoke("REFRESH", 7L));
+    }
+
+    @Test
+    void revoke_ignoresTokenOfAnotherUser() {
+        assertFalse(refreshTokenService.revoke("REFRESH", 8L),
+                "Un usuario no puede revocar el refresh token de otro");
+        verify(refreshTokenRepository, never()).consumeById(anyLong());
+    }
+}
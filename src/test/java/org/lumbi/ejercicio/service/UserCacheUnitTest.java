@@ -0,0 +1,66 @@
+package org.lumbi.ejercicio.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lumbi.ejercicio.config.UserProperties;
+import org.lumbi.ejercicio.dto.UserSnapshot;
+import org.lumbi.ejercicio.repository.UserRepository;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheUnitTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        userCache = new UserCache(userRepository, new UserProperties(), registry);
+    }
+
+    @Test
+    void findById_and_findByUsername_shareOneDatabaseLookup() {
+        UserSnapshot user = new UserSnapshot(1L, "lector");
+        when(userRepository.findSnapshotById(1L)).thenReturn(Optional.of(user));
+
+        assertEquals(Optional.of(user), userCache.findById(1L));
+        assertEquals(Optional.of(user), userCache.findById(1L));
+        assertEquals(Optional.of(user), userCache.findByUsername("lector"),
+                "El usuario cargado por id debe servir también por username");
+
+        verify(userRepository, times(1)).findSnapshotById(1L);
+        verify(userRepository, never()).findSnapshotByUsername(any());
+        assertNotNull(registry.find("cache.gets").tag("cache", "usersById").functionCounter(),
+                "La caché debe publicar sus métricas");
+    }
+
+    @Test
+    void missingUsersAreNotCached_and_invalidateForcesReload() {
+        UserSnapshot user = new UserSnapshot(2L, "nuevo");
+        when(userRepository.findSnapshotByUsername("nuevo"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(user))
+                .thenReturn(Optional.of(user));
+
+        assertTrue(userCache.findByUsername("nuevo").isEmpty());
+        assertEquals(Optional.of(user), userCache.findByUsername("nuevo"), "Un usuario recién registrado debe verse");
+
+        userCache.invalidate(2L, "nuevo");
+        assertEquals(Optional.of(user), userCache.findByUsername("nuevo"));
+
+        verify(userRepository, times(3)).findSnapshotByUsername("nuevo");
+        assertTrue(userCache.findById(null).isEmpty());
+    }
+}
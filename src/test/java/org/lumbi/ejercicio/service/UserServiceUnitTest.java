@@ -4,20 +4,32 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.lumbi.ejercicio.domain.UserDomain;
+import org.lumbi.ejercicio.dto.AuthTokens;
+import org.lumbi.ejercicio.dto.UserSnapshot;
 import org.lumbi.ejercicio.repository.UserRepository;
+import org.lumbi.ejercicio.config.PasswordHashingProperties;
 import org.lumbi.ejercicio.security.JwtTokenProvider;
+import org.lumbi.ejercicio.security.PasswordHasher;
+import org.lumbi.ejercicio.security.PasswordHashingUnavailableException;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class UserServiceUnitTest {
 
@@ -27,6 +39,22 @@ class UserServiceUnitTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private UsernameBloomFilter usernameFilter;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private UserCache userCache;
+
+    @Spy
+    private PasswordHasher passwordHasher = new PasswordHasher(Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8(),
+            new PasswordHashingProperties(), new SimpleMeterRegistry());
+
     @InjectMocks
     private UserService userService;
 
@@ -35,7 +63,7 @@ class UserServiceUnitTest {
         String username = "newuser";
         String rawPassword = "secret";
 
-        when(userRepository.existsByUsername(username)).thenReturn(false);
+        when(usernameFilter.mightContain(username)).thenReturn(false);
 
         ArgumentCaptor<UserDomain> saveCaptor = ArgumentCaptor.forClass(UserDomain.class);
 
@@ -43,7 +71,7 @@ class UserServiceUnitTest {
         when(savedWithId.getId()).thenReturn(1L);
         when(savedWithId.getUsername()).thenReturn(username);
 
-        when(userRepository.save(saveCaptor.capture())).thenReturn(savedWithId);
+        when(userRepository.saveAndFlush(saveCaptor.capture())).thenReturn(savedWithId);
 
         Optional<UserDomain> result = userService.registerUser(username, rawPassword);
 
@@ -57,8 +85,9 @@ class UserServiceUnitTest {
         assertNotEquals(rawPassword, captured.getPassword(),
                 "La contraseña debe estar codificada y no ser igual a la original");
 
-        verify(userRepository, times(1)).existsByUsername(username);
-        verify(userRepository, times(1)).save(any(UserDomain.class));
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, times(1)).saveAndFlush(any(UserDomain.class));
+        verify(usernameFilter).put(username);
     }
 
     @Test
@@ -66,13 +95,29 @@ class UserServiceUnitTest {
         String username = "existing";
         String rawPassword = "pw";
 
+        when(usernameFilter.mightContain(username)).thenReturn(true);
         when(userRepository.existsByUsername(username)).thenReturn(true);
 
         Optional<UserDomain> result = userService.registerUser(username, rawPassword);
 
         assertTrue(result.isEmpty(), "Se esperaba vacío cuando el nombre de usuario ya existe");
         verify(userRepository, times(1)).existsByUsername(username);
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
+        verify(passwordHasher, never()).encode(any());
+    }
+
+    @Test
+    void registerUser_whenUniqueConstraintFails_returnsEmpty() {
+        String username = "racer";
+
+        when(usernameFilter.mightContain(username)).thenReturn(false);
+        when(userRepository.saveAndFlush(any(UserDomain.class)))
+                .thenThrow(new DataIntegrityViolationException("users.username"));
+
+        Optional<UserDomain> result = userService.registerUser(username, "secret");
+
+        assertTrue(result.isEmpty(), "Si otro registro ocupa el nombre antes se debe devolver vacío (409)");
+        verify(usernameFilter).put(username);
     }
 
     @Test
@@ -90,11 +135,13 @@ class UserServiceUnitTest {
 
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
         when(jwtTokenProvider.generateToken(eq(username), anyMap())).thenReturn("JWT-TOKEN");
+        when(refreshTokenService.issue(42L)).thenReturn("REFRESH-TOKEN");
 
-        Optional<String> tokenOpt = userService.authenticateAndGenerateToken(username, rawPassword);
+        Optional<AuthTokens> tokenOpt = userService.authenticateAndGenerateToken(username, rawPassword);
 
         assertTrue(tokenOpt.isPresent(), "Se esperaba token cuando las credenciales son válidas");
-        assertEquals("JWT-TOKEN", tokenOpt.get(), "El token devuelto debe coincidir");
+        assertEquals("JWT-TOKEN", tokenOpt.get().accessToken(), "El token devuelto debe coincidir");
+        assertEquals("REFRESH-TOKEN", tokenOpt.get().refreshToken(), "El login debe emitir un refresh token");
 
         @SuppressWarnings("unchecked")
         ArgumentCaptor<Map<String, Object>> claimsCaptor = ArgumentCaptor.forClass(Map.class);
@@ -122,32 +169,112 @@ class UserServiceUnitTest {
 
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
 
-        Optional<String> tokenOpt = userService.authenticateAndGenerateToken(username, wrongPasswordAttempt);
+        Optional<AuthTokens> tokenOpt = userService.authenticateAndGenerateToken(username, wrongPasswordAttempt);
 
         assertTrue(tokenOpt.isEmpty(), "Se esperaba vacío cuando la contraseña no coincide");
+        verify(refreshTokenService, never()).issue(any());
         verify(jwtTokenProvider, never()).generateToken(anyString(), anyMap());
         verify(userRepository, times(1)).findByUsername(username);
     }
 
     @Test
-    void findByUsername_and_findById_delegateToRepository() {
+    void authenticateAndGenerateToken_whenHashIsOutdated_rehashesPassword() {
+        String username = "user4";
+        String rawPassword = "mypw";
+        String outdated = new Argon2PasswordEncoder(16, 32, 1, 8192, 1).encode(rawPassword);
+
+        UserDomain user = mock(UserDomain.class);
+        when(user.getId()).thenReturn(7L);
+        when(user.getUsername()).thenReturn(username);
+        when(user.getPassword()).thenReturn(outdated);
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
+        when(jwtTokenProvider.generateToken(eq(username), anyMap())).thenReturn("JWT-TOKEN");
+        when(refreshTokenService.issue(7L)).thenReturn("REFRESH-TOKEN");
+
+        Optional<AuthTokens> tokenOpt = userService.authenticateAndGenerateToken(username, rawPassword);
+
+        assertTrue(tokenOpt.isPresent(), "Un hash antiguo sigue siendo válido para iniciar sesión");
+        ArgumentCaptor<String> rehashed = ArgumentCaptor.forClass(String.class);
+        verify(user).setPassword(rehashed.capture());
+        assertFalse(passwordHasher.upgradeEncoding(rehashed.getValue()),
+                "El nuevo hash debe usar los parámetros actuales");
+        InOrder order = inOrder(userRepository, userCache);
+        order.verify(userRepository).save(user);
+        order.verify(userCache).invalidate(7L, username);
+        assertTrue(passwordHasher.matches(rawPassword, rehashed.getValue()));
+    }
+
+    @Test
+    void authenticateAndGenerateToken_whenHasherSaturated_propagatesWithoutToken() {
         UserDomain user = mock(UserDomain.class);
-        when(user.getId()).thenReturn(99L);
-        when(user.getUsername()).thenReturn("delegateUser");
+        when(user.getPassword()).thenReturn("hash");
+        when(userRepository.findByUsername("user3")).thenReturn(Optional.of(user));
+        doThrow(new PasswordHashingUnavailableException("saturado", Duration.ofSeconds(2)))
+                .when(passwordHasher).matches(anyString(), anyString());
+
+        assertThrows(PasswordHashingUnavailableException.class,
+                () -> userService.authenticateAndGenerateToken("user3", "pw"),
+                "La saturación del hasher debe llegar al controlador para responder 503");
+        verify(jwtTokenProvider, never()).generateToken(anyString(), anyMap());
+    }
+
+    @Test
+    void refresh_rotatesTokenAndIssuesAccessTokenWithoutHashing() {
+        when(refreshTokenService.rotate("OLD")).thenReturn(Optional.of(new RefreshTokenService.Rotation(42L, "NEW")));
+        when(userCache.findById(42L)).thenReturn(Optional.of(new UserSnapshot(42L, "user1")));
+        when(jwtTokenProvider.generateToken(eq("user1"), anyMap())).thenReturn("JWT-TOKEN");
+
+        Optional<AuthTokens> tokens = userService.refresh("OLD");
+
+        assertEquals(Optional.of(new AuthTokens("JWT-TOKEN", "NEW")), tokens);
+        verify(passwordHasher, never()).matches(any(), any());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void refresh_whenTokenInvalidOrUsed_returnsEmpty() {
+        when(refreshTokenService.rotate("USED")).thenReturn(Optional.empty());
+
+        assertTrue(userService.refresh("USED").isEmpty(), "Un refresh token ya usado no debe renovar la sesión");
+        verify(jwtTokenProvider, never()).generateToken(anyString(), anyMap());
+    }
+
+    @Test
+    void logout_revokesAccessAndRefreshTokens() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        when(tokenRevocationService.revoke("jti-1", expiresAt)).thenReturn(true);
+
+        assertTrue(userService.logout(7L, "jti-1", expiresAt, "REFRESH"));
+
+        verify(refreshTokenService).revoke("REFRESH", 7L);
+    }
+
+    @Test
+    void logout_whenRevocationListFull_returnsFalse() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        when(tokenRevocationService.revoke("jti-1", expiresAt)).thenReturn(false);
 
-        when(userRepository.findByUsername("delegateUser")).thenReturn(Optional.of(user));
-        when(userRepository.findById(99L)).thenReturn(Optional.of(user));
+        assertFalse(userService.logout(7L, "jti-1", expiresAt, null),
+                "Si no se puede revocar el token el controlador debe responder 503");
+        verify(refreshTokenService, never()).revoke(any(), any());
+    }
+
+    @Test
+    void findByUsername_and_findById_useUserCache() {
+        UserSnapshot user = new UserSnapshot(99L, "delegateUser");
+        when(userCache.findByUsername("delegateUser")).thenReturn(Optional.of(user));
+        when(userCache.findById(99L)).thenReturn(Optional.of(user));
 
-        Optional<UserDomain> byName = userService.findByUsername("delegateUser");
-        Optional<UserDomain> byId = userService.findById(99L);
+        Optional<UserSnapshot> byName = userService.findByUsername("delegateUser");
+        Optional<UserSnapshot> byId = userService.findById(99L);
 
         assertTrue(byName.isPresent(), "Se esperaba que existiera el usuario por nombre");
-        assertEquals("delegateUser", byName.get().getUsername(), "El nombre de usuario debe coincidir");
+        assertEquals("delegateUser", byName.get().username(), "El nombre de usuario debe coincidir");
 
         assertTrue(byId.isPresent(), "Se esperaba que existiera el usuario por id");
-        assertEquals(99L, byId.get().getId(), "El id debe coincidir");
+        assertEquals(99L, byId.get().id(), "El id debe coincidir");
 
-        verify(userRepository, times(1)).findByUsername("delegateUser");
-        verify(userRepository, times(1)).findById(99L);
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(userRepository, never()).findById(any());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package org.lumbi.ejercicio.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lumbi.ejercicio.config.UserProperties;
+import org.lumbi.ejercicio.repository.UserRepository;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameBloomFilterUnitTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UsernameBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        UserProperties properties = new UserProperties();
+        properties.setUsernameFilterExpectedSize(1_000);
+        filter = new UsernameBloomFilter(userRepository, properties);
+    }
+
+    @Test
+    void mightContain_beforeLoad_alwaysAnswersMaybe() {
+        assertTrue(filter.mightContain("cualquiera"), "Sin cargar no se puede afirmar que un nombre está libre");
+    }
+
+    @Test
+    void load_and_put_neverGiveFalseNegatives() {
+        when(userRepository.streamAllUsernames()).thenReturn(IntStream.range(0, 1_000).mapToObj(i -> "user" + i));
+
+        filter.load();
+        filter.put("recien_llegado");
+
+        assertTrue(IntStream.range(0, 1_000).allMatch(i -> filter.mightContain("user" + i)),
+                "Todos los usernames cargados deben estar");
+        assertTrue(filter.mightContain("recien_llegado"));
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.mightContain("libre" + i)).count();
+        assertTrue(falsePositives < 300, "La tasa de falsos positivos debe rondar el 1%: " + falsePositives);
+    }
+
+    @Test
+    void load_withNoUsers_answersDefinitelyAvailable() {
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.empty());
+
+        filter.load();
+
+        assertFalse(filter.mightContain("nuevo"));
+    }
+}